@@ -2,12 +2,23 @@ package com.library.library_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableAsync
+@EnableScheduling
 @SpringBootApplication
 public class LibraryBackendApplication {
 
+    // 启动步骤缓冲区大小，够记录全部 bean 的创建
+    static final int STARTUP_STEPS = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(LibraryBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(LibraryBackendApplication.class);
+        // 记录启动各阶段和每个 bean 的耗时，就绪后由 StartupTimingReport 汇总输出
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.library.library_backend.certificate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 证书模板图片和字体的共享缓存：每个模板 / 字体只解码一次，之后所有渲染线程只读共用。
+ * 模板文件名沿用原 cert_generator.py 的约定 "{类别}-{等级}.png" (例如 潍坊-优秀.png)。
+ */
+@Component
+public class CertificateAssets {
+
+    private static final Logger log = LoggerFactory.getLogger(CertificateAssets.class);
+
+    private final Path resourceDir;
+    private final String nameFontFile;
+    private final String textFontFile;
+
+    private final Map<String, BufferedImage> templates = new ConcurrentHashMap<>();
+    private final Map<String, Font> fonts = new ConcurrentHashMap<>();
+
+    public CertificateAssets(@Value("${app.certificate.resource-dir:src/python/resources}") String resourceDir,
+                             @Value("${app.certificate.name-font:SIMLI.TTF}") String nameFontFile,
+                             @Value("${app.certificate.text-font:timesbd.ttf}") String textFontFile) {
+        this.resourceDir = Path.of(resourceDir);
+        this.nameFontFile = nameFontFile;
+        this.textFontFile = textFontFile;
+    }
+
+    // 按类别和等级取模板；不存在时抛 IllegalArgumentException (批量渲染按原因计数)
+    public BufferedImage template(String category, String level) {
+        String fileName = templateName(category, level);
+        return templates.computeIfAbsent(fileName, this::loadTemplate);
+    }
+
+    public static String templateName(String category, String level) {
+        return trim(category) + "-" + trim(level) + ".png";
+    }
+
+    // 中文字段 (姓名、期数、等级) 用的字体
+    public Font nameFont() {
+        return fonts.computeIfAbsent(nameFontFile, f -> loadFont(f, Font.SERIF));
+    }
+
+    // 数字字段 (身份证号、证书编号、成绩) 用的字体
+    public Font textFont() {
+        return fonts.computeIfAbsent(textFontFile, f -> loadFont(f, Font.SERIF));
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("resourceDir", resourceDir.toAbsolutePath().toString());
+        snapshot.put("templates", templates.keySet());
+        snapshot.put("fonts", fonts.keySet());
+        return snapshot;
+    }
+
+    // 模板统一转成 TYPE_INT_RGB：PNG 可能是调色板或带透明通道，直接画会慢很多
+    private BufferedImage loadTemplate(String fileName) {
+        Path file = resourceDir.resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("模板不存在: " + fileName);
+        }
+        try {
+            BufferedImage raw = ImageIO.read(file.toFile());
+            if (raw == null) {
+                throw new IllegalArgumentException("模板无法解码: " + fileName);
+            }
+            BufferedImage rgb = new BufferedImage(raw.getWidth(), raw.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            try {
+                g.drawImage(raw, 0, 0, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+            log.info("证书模板已加载: {} ({}x{})", fileName, rgb.getWidth(), rgb.getHeight());
+            return rgb;
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取模板失败: " + fileName, e);
+        }
+    }
+
+    // 字体文件缺失时退回 JDK 逻辑字体并告警 (开发机上没有隶书也能出图)
+    private Font loadFont(String fileName, String fallback) {
+        Path file = resourceDir.resolve(fileName);
+        if (Files.isRegularFile(file)) {
+            try {
+                return Font.createFont(Font.TRUETYPE_FONT, file.toFile());
+            } catch (FontFormatException | IOException e) {
+                log.warn("字体 {} 加载失败，改用 {}: {}", fileName, fallback, e.getMessage());
+            }
+        } else {
+            log.warn("字体 {} 不存在，改用 {}", file.toAbsolutePath(), fallback);
+        }
+        return new Font(fallback, Font.PLAIN, 1);
+    }
+
+    private static String trim(String s) {
+        return s == null ? "" : s.trim();
+    }
+}
@@ -0,0 +1,205 @@
+package com.library.library_backend.certificate;
+
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.service.CertificateAssetManifest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按期数批量预生成证书：按 id 分段读出该期全部记录，每段在 ForkJoinPool 上并行渲染，
+ * 写入本地输出目录 (与 OSS 相同的 preview/、certs/ 结构，可直接同步到 OSS)。
+ * 不再每张证书起一个 Python 进程；同一时间只允许一个批量任务。
+ */
+@Service
+public class CertificateBatchRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(CertificateBatchRenderer.class);
+
+    private static final String SCAN_SQL = "SELECT id, teacherReal, teacherTel, teacherIDCa, teacherClas, teacherGrad, "
+            + "teacherCert, teacherLeve, teacherSessions, teacherBatch FROM user_teacher "
+            + "WHERE teacherBatch = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final int MAX_FAILURE_REASONS = 50;
+
+    public record Progress(boolean running, Integer batch, long total, long rendered, long skipped, long failed,
+                           long elapsedMs, double perSecond, Map<String, Long> failures, String outputDir) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CertificateRenderer renderer;
+    private final CertificateAssetManifest certificateAssetManifest;
+    private final Path outputDir;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "certificate-batch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Integer currentBatch;
+    private final AtomicLong total = new AtomicLong();
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    public CertificateBatchRenderer(JdbcTemplate jdbcTemplate, CertificateRenderer renderer,
+                                    CertificateAssetManifest certificateAssetManifest,
+                                    @Value("${app.certificate.output-dir:./certificates}") String outputDir,
+                                    @Value("${app.certificate.chunk-size:500}") int chunkSize,
+                                    @Value("${app.certificate.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.renderer = renderer;
+        this.certificateAssetManifest = certificateAssetManifest;
+        this.outputDir = Path.of(outputDir);
+        this.chunkSize = chunkSize;
+        // 渲染和编码都是纯 CPU，默认每核一个线程；每个线程同时持有一张原尺寸画布，内存紧张时调小
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // 后台运行，立即返回进度
+    public Progress start(int batch, boolean overwrite) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("证书批量生成正在运行中");
+        }
+        reset(batch);
+        executor.execute(() -> {
+            try {
+                execute(batch, overwrite);
+            } finally {
+                running.set(false);
+            }
+        });
+        return progress();
+    }
+
+    // 同步运行 (测试 / 命令行用)
+    public Progress runNow(int batch, boolean overwrite) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("证书批量生成正在运行中");
+        }
+        try {
+            reset(batch);
+            execute(batch, overwrite);
+        } finally {
+            running.set(false);
+        }
+        return progress();
+    }
+
+    public Progress progress() {
+        long end = running.get() ? System.nanoTime() : finishedNanos;
+        long elapsedNanos = startedNanos == 0 ? 0 : Math.max(0, end - startedNanos);
+        long done = rendered.sum();
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((reason, count) -> failureCounts.put(reason, count.sum()));
+        return new Progress(running.get(), currentBatch, total.get(), done, skipped.sum(), failed.sum(),
+                elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : done * 1e9 / elapsedNanos,
+                failureCounts, outputDir.toAbsolutePath().toString());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void reset(int batch) {
+        currentBatch = batch;
+        total.set(0);
+        rendered.reset();
+        skipped.reset();
+        failed.reset();
+        failures.clear();
+        finishedNanos = 0;
+        startedNanos = System.nanoTime();
+    }
+
+    private void execute(int batch, boolean overwrite) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_teacher WHERE teacherBatch = ?", Long.class, batch);
+        total.set(count == null ? 0 : count);
+        log.info("证书批量生成开始: 第 {} 期 {} 条, 并行度 {}, 输出 {}", batch, total.get(), pool.getParallelism(), outputDir.toAbsolutePath());
+        try {
+            long lastId = 0;
+            while (true) {
+                List<TeacherLoginView> chunk = jdbcTemplate.query(SCAN_SQL, (rs, i) -> new TeacherLoginView(
+                        rs.getLong("id"), rs.getString("teacherReal"), rs.getString("teacherTel"), rs.getString("teacherIDCa"),
+                        rs.getString("teacherClas"), rs.getString("teacherGrad"), rs.getString("teacherCert"),
+                        rs.getString("teacherLeve"), null, rs.getString("teacherSessions"),
+                        rs.getObject("teacherBatch", Integer.class), null), batch, lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<Callable<Void>> tasks = new ArrayList<>(chunk.size());
+                for (TeacherLoginView t : chunk) {
+                    tasks.add(() -> {
+                        renderOne(t, overwrite);
+                        return null;
+                    });
+                }
+                pool.invokeAll(tasks);
+                lastId = chunk.get(chunk.size() - 1).id();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            finishedNanos = System.nanoTime();
+        }
+        Progress result = progress();
+        log.info("证书批量生成完成: 第 {} 期 生成 {} 跳过 {} 失败 {}, 耗时 {} ms ({} 张/秒), 失败原因 {}",
+                batch, result.rendered(), result.skipped(), result.failed(), result.elapsedMs(),
+                String.format("%.1f", result.perSecond()), result.failures());
+        if (certificateAssetManifest.isEnabled()) {
+            certificateAssetManifest.refresh();
+        }
+    }
+
+    private void renderOne(TeacherLoginView t, boolean overwrite) {
+        try {
+            if (t.idCard() == null || t.idCard().isBlank()) {
+                throw new IllegalArgumentException("缺少身份证号");
+            }
+            if (!overwrite && renderer.filesExist(t, outputDir)) {
+                skipped.increment();
+                return;
+            }
+            renderer.renderToFiles(t, outputDir);
+            rendered.increment();
+        } catch (Exception e) {
+            failed.increment();
+            String reason = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            // 原因按消息计数 (通常是缺哪个模板)；消息五花八门时不让 map 无限增长
+            if (failures.size() >= MAX_FAILURE_REASONS && !failures.containsKey(reason)) {
+                reason = "其他";
+            }
+            if (failures.computeIfAbsent(reason, r -> new LongAdder()).sum() == 0) {
+                log.warn("证书生成失败 (id={}): {}", t.id(), reason);
+            }
+            failures.get(reason).increment();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.library.library_backend.certificate;
+
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.service.LoginResponseAssembler;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 证书渲染 (取代原 Python cert_generator.py)：在 JVM 内把教师信息画到模板上，输出预览 PNG 和 PDF。
+ * 模板和字体来自 CertificateAssets 的共享缓存，每张证书只分配一张画布，线程安全，可并行调用。
+ * 文件布局与 OSS 一致：preview/{期数}_{身份证}_img.png、certs/{期数}_{身份证}_pdf.pdf。
+ */
+@Service
+public class CertificateRenderer {
+
+    // 字段位置：x/y 为文字中心/基线占模板宽高的比例，size 为字号占模板高度的比例
+    record TextSlot(String field, double x, double y, double size) {
+    }
+
+    // 与 cert_generator.py 相同的字段；格式 "字段:x,y,字号;..."，可用 app.certificate.layout 覆盖
+    static final String DEFAULT_LAYOUT = "name:0.50,0.43,0.050;idCard:0.50,0.50,0.030;sessions:0.50,0.57,0.032;"
+            + "level:0.50,0.64,0.036;score:0.30,0.78,0.028;certificateNo:0.72,0.78,0.028";
+
+    // 用中文字体的字段，其余用数字字体
+    private static final List<String> NAME_FONT_FIELDS = List.of("name", "sessions", "level");
+
+    private final CertificateAssets assets;
+    private final LoginResponseAssembler loginResponseAssembler;
+    private final List<TextSlot> layout;
+    private final int previewWidth;
+    private final float pdfJpegQuality;
+
+    public CertificateRenderer(CertificateAssets assets, LoginResponseAssembler loginResponseAssembler,
+                               @Value("${app.certificate.layout:}") String layout,
+                               @Value("${app.certificate.preview-width:1200}") int previewWidth,
+                               @Value("${app.certificate.pdf-jpeg-quality:0.9}") float pdfJpegQuality) {
+        this.assets = assets;
+        this.loginResponseAssembler = loginResponseAssembler;
+        this.layout = parseLayout(layout == null || layout.isBlank() ? DEFAULT_LAYOUT : layout);
+        this.previewWidth = previewWidth;
+        this.pdfJpegQuality = pdfJpegQuality;
+        // ImageIO 默认把编码中间结果缓存到临时文件，批量出图时纯属额外磁盘 I/O
+        ImageIO.setUseCache(false);
+    }
+
+    // 模板 + 文字，原始分辨率 (PDF 用)
+    public BufferedImage render(TeacherLoginView t) {
+        BufferedImage template = assets.template(t.category(), t.level());
+        BufferedImage canvas = new BufferedImage(template.getWidth(), template.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = canvas.createGraphics();
+        try {
+            g.drawImage(template, 0, 0, null);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g.setColor(Color.BLACK);
+            int w = canvas.getWidth();
+            int h = canvas.getHeight();
+            for (TextSlot slot : layout) {
+                String text = fieldValue(t, slot.field());
+                if (text == null || text.isBlank()) {
+                    continue;
+                }
+                Font base = NAME_FONT_FIELDS.contains(slot.field()) ? assets.nameFont() : assets.textFont();
+                g.setFont(base.deriveFont((float) (slot.size() * h)));
+                FontMetrics metrics = g.getFontMetrics();
+                int x = (int) Math.round(slot.x() * w - metrics.stringWidth(text) / 2.0);
+                g.drawString(text, x, (int) Math.round(slot.y() * h));
+            }
+        } finally {
+            g.dispose();
+        }
+        return canvas;
+    }
+
+    // 预览图按 preview-width 缩小，文件小、编码快；模板本身更窄时不放大
+    public void writePreviewPng(BufferedImage certificate, OutputStream out) throws IOException {
+        BufferedImage preview = certificate;
+        if (previewWidth > 0 && certificate.getWidth() > previewWidth) {
+            int height = (int) Math.round((double) certificate.getHeight() * previewWidth / certificate.getWidth());
+            preview = new BufferedImage(previewWidth, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = preview.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(certificate, 0, 0, previewWidth, height, null);
+            } finally {
+                g.dispose();
+            }
+        }
+        ImageIO.write(preview, "png", out);
+    }
+
+    // 单页 PDF：整张证书以 JPEG 嵌入，页面按 A4 长边等比缩放 (与原 Pillow 输出一致，文字不可选中)
+    public void writePdf(BufferedImage certificate, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            float longSide = PDRectangle.A4.getHeight();
+            float scale = longSide / Math.max(certificate.getWidth(), certificate.getHeight());
+            PDRectangle size = new PDRectangle(certificate.getWidth() * scale, certificate.getHeight() * scale);
+            PDPage page = new PDPage(size);
+            document.addPage(page);
+            PDImageXObject image = JPEGFactory.createFromImage(document, certificate, pdfJpegQuality);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.drawImage(image, 0, 0, size.getWidth(), size.getHeight());
+            }
+            document.save(out);
+        }
+    }
+
+    /**
+     * 渲染一张证书并写入 outputDir 下与 OSS 相同的路径。先写临时文件再改名，
+     * 按目录扫描的文件清单不会读到写了一半的文件。
+     */
+    public void renderToFiles(TeacherLoginView t, Path outputDir) throws IOException {
+        BufferedImage certificate = render(t);
+        String batch = loginResponseAssembler.batchOf(t);
+        writeAtomically(outputDir.resolve(LoginResponseAssembler.imgKey(batch, t.idCard())),
+                out -> writePreviewPng(certificate, out));
+        writeAtomically(outputDir.resolve(LoginResponseAssembler.pdfKey(batch, t.idCard())),
+                out -> writePdf(certificate, out));
+    }
+
+    public boolean filesExist(TeacherLoginView t, Path outputDir) {
+        String batch = loginResponseAssembler.batchOf(t);
+        return Files.isRegularFile(outputDir.resolve(LoginResponseAssembler.imgKey(batch, t.idCard())))
+                && Files.isRegularFile(outputDir.resolve(LoginResponseAssembler.pdfKey(batch, t.idCard())));
+    }
+
+    private interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // 每次写入用各自的临时文件名：同一批里可能有 (期数, 身份证) 相同的记录被并行渲染到同一个目标文件
+    // (不用 Files.createTempFile：它建出的文件权限是 600，移过去后 Nginx 读不到)
+    private static void writeAtomically(Path target, Writer writer) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE), 64 * 1024)) {
+                writer.write(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String fieldValue(TeacherLoginView t, String field) {
+        Function<TeacherLoginView, String> getter = switch (field) {
+            case "name" -> TeacherLoginView::name;
+            case "idCard" -> TeacherLoginView::idCard;
+            case "sessions" -> TeacherLoginView::sessions;
+            case "level" -> TeacherLoginView::level;
+            case "score" -> TeacherLoginView::score;
+            case "certificateNo" -> TeacherLoginView::certificateNo;
+            case "category" -> TeacherLoginView::category;
+            default -> v -> null;
+        };
+        String value = getter.apply(t);
+        return value == null ? null : value.trim();
+    }
+
+    static List<TextSlot> parseLayout(String spec) {
+        List<TextSlot> slots = new ArrayList<>();
+        for (String part : spec.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] kv = part.split(":");
+            String[] numbers = kv.length == 2 ? kv[1].split(",") : new String[0];
+            if (numbers.length != 3) {
+                throw new IllegalArgumentException("证书布局格式应为 字段:x,y,字号，例如 name:0.5,0.43,0.05: " + part);
+            }
+            slots.add(new TextSlot(kv[0].trim(), Double.parseDouble(numbers[0].trim()),
+                    Double.parseDouble(numbers[1].trim()), Double.parseDouble(numbers[2].trim())));
+        }
+        return slots;
+    }
+}
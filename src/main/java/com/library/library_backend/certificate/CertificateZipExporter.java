@@ -0,0 +1,259 @@
+package com.library.library_backend.certificate;
+
+import com.library.library_backend.service.LoginResponseAssembler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 按期数 / 类别 / 等级把证书文件打包成 ZIP 边读边写给客户端：不落临时文件，不在内存里攒整个压缩包。
+ * PNG/PDF 本身已压缩，条目用 STORED (不再 deflate)；文件内容用 FileChannel.transferTo 直接写入输出流，
+ * 每个条目先扫一遍算 CRC (STORED 条目要求先写 CRC，第二遍读走页缓存)。
+ * 本地存储目录与 OSS 结构相同 (preview/、certs/)，缺失的文件记在压缩包末尾的 缺失文件.txt 里。
+ */
+@Service
+public class CertificateZipExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CertificateZipExporter.class);
+
+    // 缺失清单最多列出的条数，避免整期都没生成时清单本身过大
+    private static final int MAX_MISSING_LISTED = 10_000;
+
+    // 导出条件：至少给一个；include* 决定打包 PDF、预览图或两者
+    public record Selection(Integer batch, String category, String level, boolean includePdf, boolean includeImg) {
+
+        public boolean isEmpty() {
+            return batch == null && isBlank(category) && isBlank(level);
+        }
+
+        // 下载文件名，例如 证书_第9期_潍坊市参培教师.zip
+        public String fileName() {
+            StringBuilder name = new StringBuilder("证书");
+            if (batch != null) {
+                name.append("_第").append(batch).append("期");
+            }
+            if (!isBlank(category)) {
+                name.append('_').append(category.trim());
+            }
+            if (!isBlank(level)) {
+                name.append('_').append(level.trim());
+            }
+            return safe(name.toString()) + ".zip";
+        }
+    }
+
+    public record ExportResult(long rows, long entries, long missing, long bytes, long elapsedMs) {
+    }
+
+    private record Row(long id, String name, String idCard, String batch) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginResponseAssembler loginResponseAssembler;
+    private final Path storageRoot;
+    private final int chunkSize;
+    private final Semaphore slots;
+
+    public CertificateZipExporter(JdbcTemplate jdbcTemplate, LoginResponseAssembler loginResponseAssembler,
+                                  @Value("${app.certificate.export.storage-root:${app.certificate.output-dir:./certificates}}") String storageRoot,
+                                  @Value("${app.certificate.export.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.certificate.export.max-concurrent:4}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.loginResponseAssembler = loginResponseAssembler;
+        this.storageRoot = Path.of(storageRoot);
+        this.chunkSize = chunkSize;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    public long count(Selection selection) {
+        List<Object> args = new ArrayList<>();
+        String where = where(selection, args);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_teacher WHERE 1 = 1" + where, Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    // 同时进行的导出数有上限 (磁盘顺序读 + 出口带宽)，拿不到名额时调用方返回 429
+    public boolean tryAcquire() {
+        return slots.tryAcquire();
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * 按 id 分段读出符合条件的记录，逐个文件写入 ZIP。内存占用只与条目数 (ZIP 目录) 有关，与文件大小无关；
+     * 客户端读得慢时阻塞在写出上，不会预读后面的文件。
+     */
+    public ExportResult write(Selection selection, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        List<Object> filterArgs = new ArrayList<>();
+        String sql = "SELECT id, teacherReal, teacherIDCa, teacherSessions, teacherBatch FROM user_teacher WHERE id > ?"
+                + where(selection, filterArgs) + " ORDER BY id LIMIT ?";
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        Set<String> written = new HashSet<>();
+        StringBuilder missingList = new StringBuilder();
+        long rows = 0;
+        long entries = 0;
+        long missing = 0;
+        long bytes = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        zip.setMethod(ZipOutputStream.STORED);
+        WritableByteChannel target = Channels.newChannel(zip);
+
+        long lastId = 0;
+        while (true) {
+            List<Object> args = new ArrayList<>();
+            args.add(lastId);
+            args.addAll(filterArgs);
+            args.add(chunkSize);
+            List<Row> chunk = jdbcTemplate.query(sql, (rs, i) -> new Row(rs.getLong("id"), rs.getString("teacherReal"),
+                    rs.getString("teacherIDCa"), loginResponseAssembler.batchOf(rs.getObject("teacherBatch", Integer.class),
+                    rs.getString("teacherSessions"))), args.toArray());
+            for (Row row : chunk) {
+                rows++;
+                if (row.idCard() == null || row.idCard().isBlank()) {
+                    continue;
+                }
+                String idCard = row.idCard().trim();
+                String folder = "第" + row.batch() + "期/" + safe(row.name()) + "_" + idCard;
+                List<String[]> files = new ArrayList<>(2);
+                if (selection.includePdf()) {
+                    files.add(new String[]{LoginResponseAssembler.pdfKey(row.batch(), idCard), folder + ".pdf"});
+                }
+                if (selection.includeImg()) {
+                    files.add(new String[]{LoginResponseAssembler.imgKey(row.batch(), idCard), folder + ".png"});
+                }
+                for (String[] file : files) {
+                    // 同一期重复导入的记录对应同一个文件，只打包一次
+                    if (!written.add(file[1])) {
+                        continue;
+                    }
+                    long size = addFile(zip, target, buffer, storageRoot.resolve(file[0]), file[1]);
+                    if (size < 0) {
+                        missing++;
+                        if (missing <= MAX_MISSING_LISTED) {
+                            missingList.append(file[0]).append('\n');
+                        }
+                    } else {
+                        entries++;
+                        bytes += size;
+                    }
+                }
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).id();
+        }
+
+        if (missing > 0) {
+            if (missing > MAX_MISSING_LISTED) {
+                missingList.append("... 共 ").append(missing).append(" 个文件缺失\n");
+            }
+            byte[] content = missingList.toString().getBytes(StandardCharsets.UTF_8);
+            ZipEntry entry = storedEntry("缺失文件.txt", content.length, crcOf(content));
+            zip.putNextEntry(entry);
+            zip.write(content);
+            zip.closeEntry();
+        }
+        zip.finish();
+        out.flush();
+
+        ExportResult result = new ExportResult(rows, entries, missing, bytes, (System.nanoTime() - start) / 1_000_000);
+        log.info("证书导出 {}: {} 条记录, {} 个文件 {} MB, 缺失 {}, 耗时 {} ms", selection.fileName(), rows, entries,
+                bytes / (1024 * 1024), missing, result.elapsedMs());
+        return result;
+    }
+
+    // 写入一个 STORED 条目，返回文件大小；文件不存在返回 -1
+    private static long addFile(ZipOutputStream zip, WritableByteChannel target, ByteBuffer buffer,
+                                Path file, String entryName) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CRC32 crc = new CRC32();
+            buffer.clear();
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+            ZipEntry entry = storedEntry(entryName, size, crc.getValue());
+            entry.setLastModifiedTime(Files.getLastModifiedTime(file));
+            zip.putNextEntry(entry);
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            zip.closeEntry();
+            return size;
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    private static ZipEntry storedEntry(String name, long size, long crc) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc);
+        return entry;
+    }
+
+    private static long crcOf(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static String where(Selection selection, List<Object> args) {
+        StringBuilder where = new StringBuilder();
+        if (selection.batch() != null) {
+            where.append(" AND teacherBatch = ?");
+            args.add(selection.batch());
+        }
+        if (!isBlank(selection.category())) {
+            where.append(" AND teacherClas = ?");
+            args.add(selection.category().trim());
+        }
+        if (!isBlank(selection.level())) {
+            where.append(" AND teacherLeve = ?");
+            args.add(selection.level().trim());
+        }
+        return where.toString();
+    }
+
+    // 姓名等用作文件名时去掉路径分隔符和控制字符
+    private static String safe(String s) {
+        return s == null ? "" : s.trim().replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
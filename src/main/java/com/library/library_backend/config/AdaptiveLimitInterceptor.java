@@ -0,0 +1,50 @@
+package com.library.library_backend.config;
+
+import com.library.library_backend.service.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * /teacher 接口的过载保护：拿不到并发名额时直接返回 503 + Retry-After，不进入控制器，也不占数据库连接。
+ * 名额在请求结束 (afterCompletion) 时归还，控制器抛异常也会执行。
+ */
+public class AdaptiveLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED = AdaptiveLimitInterceptor.class.getName() + ".ACQUIRED";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdaptiveLimitInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (limiter.tryAcquire()) {
+            request.setAttribute(ACQUIRED, Boolean.TRUE);
+            return true;
+        }
+        long retryAfter = limiter.retryAfterSeconds();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"message\":\"当前访问人数较多，请 " + retryAfter + " 秒后再试\"}");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ACQUIRED) != null) {
+            request.removeAttribute(ACQUIRED);
+            limiter.release();
+        }
+    }
+}
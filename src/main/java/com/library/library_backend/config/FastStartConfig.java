@@ -0,0 +1,40 @@
+package com.library.library_backend.config;
+
+import com.library.library_backend.controller.TeacherController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * faststart 配置下全局延迟初始化，但以下 bean 仍在启动时创建：
+ * TeacherController (连带登录链路上的缓存、Bloom 过滤器、密码校验等)，避免第一次登录时才去初始化；
+ * 带 @Scheduled 方法的 bean，延迟创建的话定时任务不会注册。
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerLoginPathAndScheduledBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (TeacherController.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(beanType))) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, Schedules.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
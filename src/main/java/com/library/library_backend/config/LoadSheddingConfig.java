@@ -0,0 +1,27 @@
+package com.library.library_backend.config;
+
+import com.library.library_backend.service.AdaptiveConcurrencyLimiter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 把自适应并发上限挂到 /teacher/** 上 (登录、找回账号、/me)；管理接口和证书静态资源不受限。
+ * 参数见 app.adaptive-limit.*。
+ */
+@Configuration
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public LoadSheddingConfig(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (limiter.isEnabled()) {
+            registry.addInterceptor(new AdaptiveLimitInterceptor(limiter)).addPathPatterns("/teacher/**");
+        }
+    }
+}
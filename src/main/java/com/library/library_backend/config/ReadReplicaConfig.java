@@ -0,0 +1,110 @@
+package com.library.library_backend.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 配置了 app.datasource.replica.urls 时启用读写分离：主库仍按 spring.datasource.* 创建，
+ * 每个副本一个只读 Hikari 连接池 (池大小等参数与主库相同)，对外只暴露 Lazy 代理包着的路由数据源。
+ * 未配置时不加载，沿用 Spring Boot 自动配置的单数据源。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.replica.urls}") List<String> urls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${app.datasource.replica.read-after-write-window:2s}") Duration readAfterWriteWindow,
+            @Value("${app.datasource.replica.health-check-interval:5s}") Duration healthCheckInterval,
+            @Value("${app.datasource.replica.max-lag:0s}") Duration maxLag) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(name);
+            config.setDriverClassName(primaryDataSource.getDriverClassName());
+            config.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            config.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            // 主库未显式配置时 minimumIdle 为 -1 (等于池大小)，副本同样留默认
+            if (primaryDataSource.getMinimumIdle() >= 0) {
+                config.setMinimumIdle(primaryDataSource.getMinimumIdle());
+            }
+            config.setIdleTimeout(primaryDataSource.getIdleTimeout());
+            config.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            config.setKeepaliveTime(primaryDataSource.getKeepaliveTime());
+            config.setValidationTimeout(primaryDataSource.getValidationTimeout());
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setReadOnly(true);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            // 副本连不上时不影响启动，取连接时再失败 (并切到其他副本 / 主库)
+            config.setInitializationFailTimeout(-1);
+            // 主库连接池的指标由 Spring Boot 注册；副本不是 Bean，自己挂上 (hikaricp_* 指标按 pool 标签区分)
+            meterRegistry.ifAvailable(config::setMetricRegistry);
+            replicas.put(name, new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, readAfterWriteWindow, healthCheckInterval, maxLag);
+    }
+
+    // @ReplicaRead 仓库的代理上挂路由拦截器 (要在仓库代理创建之前加上，所以用 BeanPostProcessor)；未配置副本时不加载
+    @Bean
+    public static BeanPostProcessor replicaReadRepositoryCustomizer() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxy, info) -> {
+                        Class<?> repositoryInterface = info.getRepositoryInterface();
+                        if (repositoryInterface.isAnnotationPresent(ReplicaRead.class)) {
+                            proxy.addAdvice(new ReplicaReadInterceptor(repositoryInterface));
+                        }
+                    }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // JPA、JdbcTemplate 等注入的数据源：等第一条 SQL 时才按事务是否只读选择主库或副本
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
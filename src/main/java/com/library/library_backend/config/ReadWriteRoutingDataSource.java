@@ -0,0 +1,250 @@
+package com.library.library_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读写分离路由：只读事务 (Spring Data 的 find 方法默认 readOnly) 和 @ReplicaRead 仓库在事务外的查询轮询发往健康的只读副本，
+ * 其余 (写事务、导入、无事务的 JdbcTemplate) 一律走主库。
+ * 需要包在 LazyConnectionDataSourceProxy 里使用：事务开始时还不知道是否只读，等第一条 SQL 才真正取连接。
+ * 副本取连接失败立即标记为不可用并改用下一个副本 / 主库，后台定时检查恢复。
+ * 写事务提交后 read-after-write-window 内的只读查询也走主库，避免刚写入就从延迟的副本读到旧数据、又被缓存起来。
+ * 窗口只由写事务开启 (无事务的连接分不清读写)，所以批量回填等 JdbcTemplate 写入要放在 TransactionTemplate 里执行。
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    // 当前线程正在执行 @ReplicaRead 查询 (见 ReplicaReadInterceptor)
+    static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+        volatile String lastError;
+        final LongAdder routed = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long readAfterWriteNanos;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    private volatile long lastWriteNanos;
+    private volatile boolean written;
+
+    private final LongAdder primaryWrites = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder guardedReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration readAfterWriteWindow,
+                                      Duration healthCheckInterval, Duration maxLag) {
+        this.primary = primary;
+        replicas.forEach((name, ds) -> this.replicas.add(new Replica(name, ds)));
+        this.readAfterWriteNanos = readAfterWriteWindow.toNanos();
+        this.maxLag = maxLag;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("读写分离: 副本 {}, 写后读主库窗口 {}, 健康检查间隔 {}", replicas.keySet(), readAfterWriteWindow, healthCheckInterval);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        // 选中的副本取不到连接：标记不可用，依次试其他副本，最后回到主库
+        for (int i = 0; i <= replicas.size(); i++) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.routed.increment();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e);
+            }
+            replica = nextHealthy();
+            if (replica == null) {
+                break;
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("读写分离数据源不支持按用户名取连接");
+    }
+
+    static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    // 当前线程的这次取连接应去哪里：null 表示主库
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isReplicaRead()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            } else {
+                primaryReads.increment();
+            }
+            return null;
+        }
+        if (written && System.nanoTime() - lastWriteNanos < readAfterWriteNanos) {
+            guardedReads.increment();
+            return null;
+        }
+        Replica replica = nextHealthy();
+        if (replica == null) {
+            fallbackReads.increment();
+        }
+        return replica;
+    }
+
+    // 写事务：开始和结束时都刷新写入时间 (副本延迟从提交时算起)
+    private void recordWrite() {
+        primaryWrites.increment();
+        lastWriteNanos = System.nanoTime();
+        written = true;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastWriteNanos = System.nanoTime();
+                }
+            });
+        }
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, Exception e) {
+        replica.failures.increment();
+        replica.lastError = e.getMessage();
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("只读副本 {} 不可用，改用其他副本 / 主库: {}", replica.name, e.getMessage());
+        }
+    }
+
+    // 连接可用且 (开启时) 复制延迟不超过 max-lag 才算健康
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(2)) {
+                    throw new SQLException("连接校验失败");
+                }
+                Long lag = maxLag.isZero() ? null : replicationLagSeconds(connection);
+                if (lag != null && lag > maxLag.toSeconds()) {
+                    throw new SQLException("复制延迟 " + lag + " 秒");
+                }
+                if (!replica.healthy) {
+                    log.info("只读副本 {} 已恢复", replica.name);
+                }
+                replica.lastError = null;
+                replica.healthy = true;
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    // MySQL 副本的 Seconds_Behind_Source；没有权限或不是副本时返回 null (不按延迟判断)
+    private static Long replicationLagSeconds(Connection connection) {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return null;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            // 复制线程停了时为 NULL，视为无限延迟
+            return rs.wasNull() ? Long.MAX_VALUE : lag;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", true);
+        snapshot.put("primaryWrites", primaryWrites.sum());
+        snapshot.put("primaryReads", primaryReads.sum());
+        snapshot.put("guardedReads", guardedReads.sum());
+        snapshot.put("fallbackReads", fallbackReads.sum());
+        snapshot.put("readAfterWriteWindowMs", readAfterWriteNanos / 1_000_000);
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("name", replica.name);
+            r.put("healthy", replica.healthy);
+            r.put("routed", replica.routed.sum());
+            r.put("failures", replica.failures.sum());
+            r.put("lastError", replica.lastError);
+            list.add(r);
+        }
+        snapshot.put("replicas", list);
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("关闭只读副本连接池 {} 失败: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+}
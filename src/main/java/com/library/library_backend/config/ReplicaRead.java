@@ -0,0 +1,17 @@
+package com.library.library_backend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标在 Repository 接口上：接口里声明的查询方法 (不含 @Modifying) 在事务外调用时发往只读副本。
+ * 只在配置了副本 (ReadReplicaConfig) 时生效；未配置时什么也不做，查询不会多开事务。
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
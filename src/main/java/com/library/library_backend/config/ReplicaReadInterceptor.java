@@ -0,0 +1,37 @@
+package com.library.library_backend.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+/**
+ * 挂在 @ReplicaRead 仓库代理上的拦截器：事务外调用声明的查询方法时打上线程标记，
+ * ReadWriteRoutingDataSource 取连接时据此路由到副本。只是一个线程变量，不开事务、不发 SET SESSION READ ONLY。
+ * 已在事务中的调用不打标记 (连接跟着事务走，写事务里的查询必须留在主库)。
+ */
+class ReplicaReadInterceptor implements MethodInterceptor {
+
+    private final Class<?> repositoryInterface;
+
+    ReplicaReadInterceptor(Class<?> repositoryInterface) {
+        this.repositoryInterface = repositoryInterface;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() != repositoryInterface || method.isAnnotationPresent(Modifying.class)
+                || TransactionSynchronizationManager.isActualTransactionActive() || ReadWriteRoutingDataSource.isReplicaRead()) {
+            return invocation.proceed();
+        }
+        ReadWriteRoutingDataSource.REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.REPLICA_READ.remove();
+        }
+    }
+}
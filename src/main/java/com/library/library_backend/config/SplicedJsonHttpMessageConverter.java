@@ -0,0 +1,47 @@
+package com.library.library_backend.config;
+
+import com.library.library_backend.service.LoginResponseFragments.SplicedJson;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * 把预编码的 JSON 片段 (SplicedJson) 原样写进响应流：不经过 Jackson，也不再复制成一个完整的 byte[]。
+ * 只处理 SplicedJson，只写不读；在 WebMessageConverterConfig 里注册到默认转换器之前。
+ * 不能声明成 bean：Spring Boot 会把支持 application/json 的转换器 bean 当作 Jackson 的替代品。
+ */
+public class SplicedJsonHttpMessageConverter extends AbstractHttpMessageConverter<SplicedJson> {
+
+    public SplicedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SplicedJson.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SplicedJson readInternal(Class<? extends SplicedJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("SplicedJson 只用于输出", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(SplicedJson body, MediaType contentType) {
+        return body.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(SplicedJson body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.library_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 流式响应 (StreamingResponseBody：批量查询 NDJSON、证书 ZIP 导出) 的执行线程。
+ * 请求线程在返回后立即释放，响应体在虚拟线程上写出：客户端读得慢时只阻塞一个虚拟线程，
+ * 不占 Tomcat 线程，也不占 @Async / 定时任务共用的 applicationTaskExecutor。
+ * 超时见 spring.mvc.async.request-timeout。
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-stream-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
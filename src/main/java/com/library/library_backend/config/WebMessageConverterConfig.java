@@ -0,0 +1,17 @@
+package com.library.library_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 登录响应 (预编码片段拼接) 的输出转换器，作为自定义转换器排在 Jackson 之前；其他响应仍由 Jackson 序列化。
+ */
+@Configuration
+public class WebMessageConverterConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.addCustomConverter(new SplicedJsonHttpMessageConverter());
+    }
+}
@@ -0,0 +1,64 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.service.BatchBackfillJob;
+import com.library.library_backend.service.BatchRegistry;
+import com.library.library_backend.service.LookupKeyBackfillJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// 运维接口：期数规则和 teacherBatch / teacherLookupKey 回填
+@RestController
+@RequestMapping("/admin")
+public class AdminBatchController extends AdminEndpoint {
+
+    @Autowired
+    private BatchRegistry batchRegistry;
+
+    @Autowired
+    private BatchBackfillJob batchBackfillJob;
+
+    @Autowired
+    private LookupKeyBackfillJob lookupKeyBackfillJob;
+
+    // 当前生效的期数规则
+    @GetMapping("/batches")
+    public List<BatchRegistry.BatchRule> batches(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return batchRegistry.rules();
+    }
+
+    // 修改 teacher_batch 表后重新加载
+    @PostMapping("/batches/reload")
+    public List<BatchRegistry.BatchRule> reloadBatches(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return batchRegistry.reload();
+    }
+
+    // 回填 teacherBatch；新增期数后传 all=true 全表重算
+    @PostMapping("/batches/backfill")
+    public BatchBackfillJob.BackfillResult backfillBatches(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                           @RequestParam(value = "all", defaultValue = "false") boolean all) {
+        checkKey(key);
+        try {
+            return batchBackfillJob.run(all);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    // 回填找回账号用的查询键 teacherLookupKey；修改归一化规则后传 all=true 全表重算
+    @PostMapping("/teachers/lookup-key/backfill")
+    public LookupKeyBackfillJob.BackfillResult backfillLookupKeys(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                                  @RequestParam(value = "all", defaultValue = "false") boolean all) {
+        checkKey(key);
+        try {
+            return lookupKeyBackfillJob.run(all);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
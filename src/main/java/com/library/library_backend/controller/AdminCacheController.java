@@ -0,0 +1,52 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.TeacherLookupCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// 运维接口：登录缓存和手机号 Bloom 过滤器
+@RestController
+@RequestMapping("/admin")
+public class AdminCacheController extends AdminEndpoint {
+
+    @Autowired
+    private TeacherLookupCache teacherLookupCache;
+
+    @Autowired
+    private PhoneBloomFilter phoneBloomFilter;
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return teacherLookupCache.statsSnapshot();
+    }
+
+    @PostMapping("/cache/invalidate")
+    public Map<String, Object> invalidateCache(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                               @RequestParam(value = "phone", required = false) String phone) {
+        checkKey(key);
+        if (phone == null || phone.isBlank()) {
+            teacherLookupCache.invalidateAll();
+        } else {
+            teacherLookupCache.invalidate(phone);
+        }
+        return teacherLookupCache.statsSnapshot();
+    }
+
+    // 手机号 Bloom 过滤器：容量、估算误判率、省下的查询次数
+    @GetMapping("/bloom/stats")
+    public Map<String, Object> bloomStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return phoneBloomFilter.statsSnapshot();
+    }
+
+    // 直接改库 (不经过本实例) 后手工重建
+    @PostMapping("/bloom/rebuild")
+    public Map<String, Object> rebuildBloom(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return phoneBloomFilter.rebuild();
+    }
+}
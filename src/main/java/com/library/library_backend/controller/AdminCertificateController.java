@@ -0,0 +1,133 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.certificate.CertificateBatchRenderer;
+import com.library.library_backend.certificate.CertificateRenderer;
+import com.library.library_backend.certificate.CertificateZipExporter;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.service.CertificateAssetManifest;
+import com.library.library_backend.service.TeacherLookupCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// 运维接口：证书文件清单、批量预生成、打包下载和现场预览
+@RestController
+@RequestMapping("/admin")
+public class AdminCertificateController extends AdminEndpoint {
+
+    @Autowired
+    private CertificateAssetManifest certificateAssetManifest;
+
+    @Autowired
+    private CertificateRenderer certificateRenderer;
+
+    @Autowired
+    private CertificateBatchRenderer certificateBatchRenderer;
+
+    @Autowired
+    private CertificateZipExporter certificateZipExporter;
+
+    @Autowired
+    private TeacherLookupCache teacherLookupCache;
+
+    // 证书文件清单：文件数、内存占用、登录响应里标记为缺失的次数
+    @GetMapping("/assets/manifest")
+    public Map<String, Object> assetManifest(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return certificateAssetManifest.statsSnapshot();
+    }
+
+    // 批量补传证书后立即生效：incremental=true 只读新增部分，否则全量重载
+    @PostMapping("/assets/manifest/refresh")
+    public Map<String, Object> refreshAssetManifest(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                    @RequestParam(value = "incremental", defaultValue = "true") boolean incremental) {
+        checkKey(key);
+        return incremental ? certificateAssetManifest.refresh() : certificateAssetManifest.reload();
+    }
+
+    // 按期数批量预生成证书到 app.certificate.output-dir，返回进度；overwrite=false 时跳过已生成的
+    @PostMapping("/certificates/render")
+    public CertificateBatchRenderer.Progress renderCertificates(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                                @RequestParam("batch") int batch,
+                                                                @RequestParam(value = "overwrite", defaultValue = "false") boolean overwrite) {
+        checkKey(key);
+        try {
+            return certificateBatchRenderer.start(batch, overwrite);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/certificates/render/progress")
+    public CertificateBatchRenderer.Progress renderProgress(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return certificateBatchRenderer.progress();
+    }
+
+    // 按期数 / 类别 / 等级打包下载证书 (ZIP，边读边写)；kind = pdf | img | all
+    @GetMapping("/certificates/export")
+    public ResponseEntity<StreamingResponseBody> exportCertificates(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                                    @RequestParam(value = "batch", required = false) Integer batch,
+                                                                    @RequestParam(value = "category", required = false) String category,
+                                                                    @RequestParam(value = "level", required = false) String level,
+                                                                    @RequestParam(value = "kind", defaultValue = "pdf") String kind) {
+        checkKey(key);
+        if (!List.of("pdf", "img", "all").contains(kind)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "kind 只能是 pdf、img 或 all");
+        }
+        CertificateZipExporter.Selection selection = new CertificateZipExporter.Selection(batch, category, level,
+                !kind.equals("img"), !kind.equals("pdf"));
+        if (selection.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请至少指定期数、类别或等级之一");
+        }
+        if (certificateZipExporter.count(selection) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "没有符合条件的记录");
+        }
+        if (!certificateZipExporter.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "导出任务过多，请稍后再试");
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                certificateZipExporter.write(selection, out);
+            } finally {
+                certificateZipExporter.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(selection.fileName(), StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
+
+    // 现场渲染某个手机号的第 index 张证书 (调模板坐标用)，不落盘
+    @GetMapping(value = "/certificates/preview", produces = MediaType.IMAGE_PNG_VALUE)
+    public byte[] previewCertificate(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                     @RequestParam("phone") String phone,
+                                     @RequestParam(value = "index", defaultValue = "0") int index) throws IOException {
+        checkKey(key);
+        List<TeacherLoginView> teachers = teacherLookupCache.findAllByPhone(phone);
+        if (index < 0 || index >= teachers.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "该手机号下没有第 " + index + " 条记录");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            certificateRenderer.writePreviewPng(certificateRenderer.render(teachers.get(index)), out);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT, e.getMessage());
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.entity.HealthCheckReport;
+import com.library.library_backend.entity.ImportJob;
+import com.library.library_backend.importer.TeacherImportService;
+import com.library.library_backend.repository.HealthCheckReportRepository;
+import com.library.library_backend.repository.ImportJobRepository;
+import com.library.library_backend.service.AccountVerificationService;
+import com.library.library_backend.service.DataHealthCheckService;
+import com.library.library_backend.service.TeacherBulkLookupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// 运维接口：DBF 导入、按手机号批量查询、数据健康检查、全量账号可登录性校验
+@RestController
+@RequestMapping("/admin")
+public class AdminDataController extends AdminEndpoint {
+
+    @Autowired
+    private TeacherImportService teacherImportService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private TeacherBulkLookupService teacherBulkLookupService;
+
+    @Autowired
+    private DataHealthCheckService dataHealthCheckService;
+
+    @Autowired
+    private HealthCheckReportRepository healthCheckReportRepository;
+
+    @Autowired
+    private AccountVerificationService accountVerificationService;
+
+    @Value("${app.import.default-file:src/main/resources/static/user_teacher.dbf}")
+    private String defaultImportFile;
+
+    // 后台启动一次数据健康检查，返回 RUNNING 状态的报告，稍后用 id 查询结果
+    @PostMapping("/health-check")
+    public HealthCheckReport startHealthCheck(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        try {
+            return dataHealthCheckService.start();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/health-check/latest")
+    public HealthCheckReport latestHealthCheck(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return healthCheckReportRepository.findTopByOrderByIdDesc()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "还没有健康检查报告"));
+    }
+
+    @GetMapping("/health-check/{id}")
+    public HealthCheckReport healthCheck(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                         @PathVariable("id") Long id) {
+        checkKey(key);
+        return healthCheckReportRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "报告不存在"));
+    }
+
+    // 全量账号可登录性校验，返回异常账号列表 (同时写入 app.verification.output-dir)
+    @PostMapping("/accounts/verify")
+    public AccountVerificationService.VerificationResult verifyAccounts(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        try {
+            return accountVerificationService.verifyAll();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/accounts/verify/progress")
+    public AccountVerificationService.Progress verifyProgress(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return accountVerificationService.progress();
+    }
+
+    // 后台导入 DBF，返回任务后用 id 查询进度；resume=true 时从同一文件上次中断的位置继续
+    @PostMapping("/import")
+    public ImportJob startImport(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                 @RequestParam(value = "file", required = false) String file,
+                                 @RequestParam(value = "resume", defaultValue = "true") boolean resume) {
+        checkKey(key);
+        Path path = Path.of(file == null || file.isBlank() ? defaultImportFile : file);
+        try {
+            return teacherImportService.start(path, resume);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "读取导入文件失败: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/import/{id}")
+    public ImportJob importJob(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                               @PathVariable("id") Long id) {
+        checkKey(key);
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "导入任务不存在"));
+    }
+
+    // 按手机号批量查询，请求体为手机号数组；每个手机号一行 JSON (application/x-ndjson)，边查边返回
+    @PostMapping("/teachers/lookup")
+    public ResponseEntity<StreamingResponseBody> bulkLookup(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                            @RequestBody List<String> phones) {
+        checkKey(key);
+        List<String> normalized;
+        try {
+            normalized = teacherBulkLookupService.normalize(phones);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> teacherBulkLookupService.write(normalized, out));
+    }
+}
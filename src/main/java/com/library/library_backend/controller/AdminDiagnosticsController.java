@@ -0,0 +1,95 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.config.ReadWriteRoutingDataSource;
+import com.library.library_backend.service.DbAccessGate;
+import com.library.library_backend.service.LoginEventLogger;
+import com.library.library_backend.service.QueryPlanVerifier;
+import com.library.library_backend.service.SqlSampler;
+import com.library.library_backend.service.StartupTimingReport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// 运维接口：数据库闸门、读写分离、启动耗时、登录日志和 SQL 采样、执行计划
+@RestController
+@RequestMapping("/admin")
+public class AdminDiagnosticsController extends AdminEndpoint {
+
+    @Autowired
+    private DbAccessGate dbAccessGate;
+
+    // 只在配置了只读副本时存在
+    @Autowired
+    private ObjectProvider<ReadWriteRoutingDataSource> readWriteRoutingDataSource;
+
+    @Autowired
+    private StartupTimingReport startupTimingReport;
+
+    @Autowired
+    private LoginEventLogger loginEventLogger;
+
+    @Autowired
+    private SqlSampler sqlSampler;
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    // 数据库闸门的排队/等待指标
+    @GetMapping("/db-gate/stats")
+    public Map<String, Object> dbGateStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return dbAccessGate.statsSnapshot();
+    }
+
+    // 读写分离：主库读写次数、写后读主库次数、各副本路由次数和健康状态
+    @GetMapping("/datasource/routing")
+    public Map<String, Object> datasourceRouting(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        ReadWriteRoutingDataSource routing = readWriteRoutingDataSource.getIfAvailable();
+        return routing == null ? Map.of("enabled", false) : routing.statsSnapshot();
+    }
+
+    // 本次启动的各阶段耗时和最慢的 bean
+    @GetMapping("/startup")
+    public Map<String, Object> startupTimings(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return startupTimingReport.statsSnapshot();
+    }
+
+    // 登录事件日志的写入/采样/丢弃计数
+    @GetMapping("/diagnostics/login-log")
+    public Map<String, Object> loginLogStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return loginEventLogger.statsSnapshot();
+    }
+
+    // 运行中调整某类事件的采样率 (0~1)
+    @PostMapping("/diagnostics/login-log/sample-rate")
+    public Map<String, Object> setLoginLogSampleRate(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                     @RequestParam("type") String type,
+                                                     @RequestParam("rate") double rate) {
+        checkKey(key);
+        loginEventLogger.setSampleRate(type, rate);
+        return loginEventLogger.statsSnapshot();
+    }
+
+    // 打开/关闭 SQL 采样日志，例如 ?enabled=true&rate=0.05
+    @PostMapping("/diagnostics/sql")
+    public Map<String, Object> sqlLog(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                      @RequestParam("enabled") boolean enabled,
+                                      @RequestParam(value = "rate", required = false) Double rate) {
+        checkKey(key);
+        sqlSampler.configure(enabled, rate);
+        return sqlSampler.statsSnapshot();
+    }
+
+    // 重新对登录/找回账号的查询执行 EXPLAIN，scan=true 表示全表扫描
+    @GetMapping("/query-plans")
+    public List<QueryPlanVerifier.PlanCheck> queryPlans(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return queryPlanVerifier.verify();
+    }
+}
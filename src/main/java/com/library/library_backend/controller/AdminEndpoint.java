@@ -0,0 +1,21 @@
+package com.library.library_backend.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 各运维接口 (/admin/**) 控制器的公共部分：只给内部工具用，请求头必须带上 X-Admin-Key。
+ */
+abstract class AdminEndpoint {
+
+    // 未配置密钥时所有运维接口都拒绝访问
+    @Value("${app.admin.key:}")
+    private String adminKey;
+
+    protected void checkKey(String key) {
+        if (adminKey == null || adminKey.isEmpty() || !adminKey.equals(key)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "无权访问运维接口");
+        }
+    }
+}
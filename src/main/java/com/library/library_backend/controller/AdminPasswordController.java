@@ -0,0 +1,41 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.service.PasswordMigrationJob;
+import com.library.library_backend.service.PasswordVerifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+// 运维接口：登录密码校验统计和明文密码迁移
+@RestController
+@RequestMapping("/admin")
+public class AdminPasswordController extends AdminEndpoint {
+
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private PasswordMigrationJob passwordMigrationJob;
+
+    // 密码校验：线程池排队、缓存命中、哈希平均耗时、拒绝次数
+    @GetMapping("/passwords/stats")
+    public Map<String, Object> passwordStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return passwordVerifier.statsSnapshot();
+    }
+
+    // 迁移明文密码到哈希；调整 app.password.iterations 后传 all=true 重算旧哈希
+    @PostMapping("/passwords/migrate")
+    public PasswordMigrationJob.MigrationResult migratePasswords(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                                                 @RequestParam(value = "all", defaultValue = "false") boolean all) {
+        checkKey(key);
+        try {
+            return passwordMigrationJob.run(all);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
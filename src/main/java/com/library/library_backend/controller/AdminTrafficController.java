@@ -0,0 +1,53 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.service.AdaptiveConcurrencyLimiter;
+import com.library.library_backend.service.LoginRateLimiter;
+import com.library.library_backend.service.MaintenanceState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// 运维接口：限流、/teacher 自适应并发上限、维护模式
+@RestController
+@RequestMapping("/admin")
+public class AdminTrafficController extends AdminEndpoint {
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+    @Autowired
+    private MaintenanceState maintenanceState;
+
+    // 各限流器的 key 数量和放行/拒绝计数
+    @GetMapping("/rate-limit/stats")
+    public Map<String, Object> rateLimitStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return loginRateLimiter.statsSnapshot();
+    }
+
+    // /teacher 自适应并发上限：当前上限、在途请求数、拒绝次数
+    @GetMapping("/limiter")
+    public Map<String, Object> limiterStats(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return adaptiveConcurrencyLimiter.statsSnapshot();
+    }
+
+    @GetMapping("/maintenance")
+    public Map<String, Object> maintenanceStatus(@RequestHeader(value = "X-Admin-Key", required = false) String key) {
+        checkKey(key);
+        return maintenanceState.statsSnapshot();
+    }
+
+    // 运行中开关维护模式，例如 ?enabled=true&key=测试密钥；不传 key 时沿用原来的测试密钥
+    @PostMapping("/maintenance")
+    public Map<String, Object> setMaintenance(@RequestHeader(value = "X-Admin-Key", required = false) String key,
+                                              @RequestParam("enabled") boolean enabled,
+                                              @RequestParam(value = "key", required = false) String maintenanceKey) {
+        checkKey(key);
+        return maintenanceState.set(enabled, maintenanceKey);
+    }
+}
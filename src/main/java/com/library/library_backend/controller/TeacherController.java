@@ -1,17 +1,35 @@
 package com.library.library_backend.controller;
 
-import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherLoginView;
 import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.CertificateListCache;
+import com.library.library_backend.service.DbAccessGate;
+import com.library.library_backend.service.LoginEventLogger;
+import com.library.library_backend.service.LoginMetrics;
+import com.library.library_backend.service.LoginRateLimiter;
+import com.library.library_backend.service.LookupKeyBackfillJob;
+import com.library.library_backend.service.MaintenanceState;
+import com.library.library_backend.service.PasswordVerifier;
+import com.library.library_backend.service.PasswordVerifierBusyException;
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.RateLimitedException;
+import com.library.library_backend.service.SessionTokens;
+import com.library.library_backend.service.LoginResponseFragments;
+import com.library.library_backend.service.TeacherCredentials;
+import com.library.library_backend.service.TeacherLookupCache;
+import com.library.library_backend.service.TeacherLookupKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
-import java.util.HashMap;
 
 @RestController
 @RequestMapping("/teacher")
@@ -21,32 +39,69 @@ public class TeacherController {
     @Autowired
     private TeacherRepository teacherRepository;
 
-    // ✅ 配置 OSS 根路径 (根据你的 Bucket 设置)
-    private static final String OSS_BASE_URL = "https://yangteam-files.oss-cn-hangzhou.aliyuncs.com/";
+    // 登录查询走进程内缓存，重复登录不再访问数据库
+    @Autowired
+    private TeacherLookupCache teacherLookupCache;
+
+    // 查库前先过闸门，许可数与连接池一致
+    @Autowired
+    private DbAccessGate dbAccessGate;
+
+    // 每条证书记录预先编码好的 JSON 片段 (期数 + OSS 链接)，按手机号缓存
+    @Autowired
+    private LoginResponseFragments loginResponseFragments;
+
+    // 按手机号/身份证号和 IP 限流，查库之前检查
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    // 库里一定不存在的手机号直接拒绝，不查缓存也不查库
+    @Autowired
+    private PhoneBloomFilter phoneBloomFilter;
+
+    // 登录事件异步采样日志，请求线程不做控制台 I/O
+    @Autowired
+    private LoginEventLogger loginEventLogger;
+
+    // 分阶段耗时和结果计数 (/actuator/prometheus)
+    @Autowired
+    private LoginMetrics loginMetrics;
+
+    // 密码哈希校验 (专用线程池 + 最近成功缓存)，未迁移的记录仍按明文比对
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    // 查询键回填完成前，findAccount 查不到时退回按姓名+身份证查询
+    @Autowired
+    private LookupKeyBackfillJob lookupKeyBackfillJob;
+
+    // 登录成功后签发令牌，/me 凭令牌取证书列表，不再重复提交密码
+    @Autowired
+    private SessionTokens sessionTokens;
+
+    // /me 的响应按手机号缓存成 JSON 字节 + ETag
+    @Autowired
+    private CertificateListCache certificateListCache;
 
     // 正则表达式常量
-    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
     private static final Pattern IDCARD_PATTERN = Pattern.compile("(^\\d{15}$)|(^\\d{18}$)|(^\\d{17}(\\d|X|x)$)");
 
-    // 维护模式开关
-    @Value("${app.maintenance.enabled:false}")
-    private boolean maintenanceMode;
-
-    @Value("${app.maintenance.key:}")
-    private String maintenanceKey;
+    // 维护模式：运行中由 /admin/maintenance 开关
+    @Autowired
+    private MaintenanceState maintenanceState;
 
     // ==========================================
-    // 1. 登录接口 (已修复：支持 7, 8, 9 期)
+    // 1. 登录接口 (期数见 teacher_batch 表)
     // ==========================================
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
-        
+        long start = System.nanoTime();
+
         // 1. 维护模式校验
-        String inputKey = loginRequest.get("secretKey");
-        if (maintenanceKey != null && !maintenanceKey.isEmpty()) {
-             if (inputKey == null || !inputKey.equals(maintenanceKey)) {
-                 return ResponseEntity.status(403).body(Collections.singletonMap("message", "当前系统正在维护中，请输入正确的测试密钥！"));
-             }
+        if (maintenanceState.blocks(loginRequest.get("secretKey"))) {
+            loginMetrics.loginOutcome(LoginMetrics.MAINTENANCE);
+            loginEventLogger.log(LoginEventLogger.LOGIN_REJECTED, loginRequest.get("phone"), 0, start, "MAINTENANCE");
+            return ResponseEntity.status(403).body(Collections.singletonMap("message", "当前系统正在维护中，请输入正确的测试密钥！"));
         }
 
         String phone = loginRequest.get("phone");
@@ -54,121 +109,188 @@ public class TeacherController {
 
         // 2. 基础校验
         if (phone == null || password == null) {
+            loginMetrics.loginOutcome(LoginMetrics.EMPTY_INPUT);
+            loginEventLogger.log(LoginEventLogger.LOGIN_REJECTED, phone, 0, start, "EMPTY_INPUT");
             return ResponseEntity.badRequest().body("账号或密码不能为空");
         }
-        if (!PHONE_PATTERN.matcher(phone.trim()).matches()) {
+        if (!isValidPhone(phone)) {
+            loginMetrics.loginOutcome(LoginMetrics.BAD_FORMAT);
+            loginEventLogger.log(LoginEventLogger.LOGIN_REJECTED, phone, 0, start, "BAD_PHONE_FORMAT");
             return ResponseEntity.status(500).body(Collections.singletonMap("message", "账号格式不正确"));
         }
 
-        // 3. 查库逻辑
-        String cleanPhone = phone.trim();
-        List<Teacher> teachers = teacherRepository.findAllByPhone(cleanPhone);
-        
+        // 限流：撞库流量不进缓存、不查库
+        String cleanPhone = TeacherLookupCache.normalize(phone);
+        long retryAfter = loginRateLimiter.checkLogin(cleanPhone);
+        if (retryAfter > 0) {
+            loginMetrics.loginOutcome(LoginMetrics.RATE_LIMITED);
+            loginEventLogger.log(LoginEventLogger.LOGIN_REJECTED, cleanPhone, 0, start, "RATE_LIMITED");
+            return ResponseEntity.status(429).header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(Collections.singletonMap("message", "尝试过于频繁，请稍后再试"));
+        }
+
+        long validated = System.nanoTime();
+        loginMetrics.loginStage(LoginMetrics.VALIDATE, validated - start);
+
+        // 3. 查库逻辑 (先过 Bloom 过滤器)
+        if (!phoneBloomFilter.mightContain(cleanPhone)) {
+            loginMetrics.loginOutcome(LoginMetrics.NOT_FOUND);
+            loginEventLogger.log(LoginEventLogger.LOGIN_FAILED, cleanPhone, 0, start, "NOT_FOUND_BLOOM");
+            return ResponseEntity.status(401).body(Collections.singletonMap("message", "账号或密码错误"));
+        }
+        List<TeacherLoginView> teachers = teacherLookupCache.findAllByPhone(cleanPhone);
+        long queried = System.nanoTime();
+        loginMetrics.loginStage(LoginMetrics.QUERY, queried - validated);
+
         if (teachers == null || teachers.isEmpty()) {
+            phoneBloomFilter.recordFalsePositive();
+            loginMetrics.loginOutcome(LoginMetrics.NOT_FOUND);
+            loginEventLogger.log(LoginEventLogger.LOGIN_FAILED, cleanPhone, 0, start, "NOT_FOUND");
             return ResponseEntity.status(401).body(Collections.singletonMap("message", "账号或密码错误"));
         }
 
         // 4. 验证密码
-        boolean passwordCorrect = false;
-        for (Teacher t : teachers) {
-            if (t.getPassword() != null && t.getPassword().equals(password)) {
-                passwordCorrect = true;
-                break;
-            }
+        boolean passwordOk;
+        try {
+            passwordOk = passwordVerifier.matches(cleanPhone, teachers, password);
+        } catch (PasswordVerifierBusyException e) {
+            loginMetrics.loginOutcome(LoginMetrics.BUSY);
+            loginEventLogger.log(LoginEventLogger.LOGIN_REJECTED, cleanPhone, teachers.size(), start, "VERIFIER_BUSY");
+            throw e;
         }
-        
-        if (!passwordCorrect) {
+        long checked = System.nanoTime();
+        loginMetrics.loginStage(LoginMetrics.PASSWORD, checked - queried);
+        if (!passwordOk) {
+            loginMetrics.loginOutcome(LoginMetrics.WRONG_PASSWORD);
+            loginEventLogger.log(LoginEventLogger.LOGIN_FAILED, cleanPhone, teachers.size(), start, "BAD_PASSWORD");
             return ResponseEntity.status(401).body(Collections.singletonMap("message", "账号或密码错误"));
         }
+        // 登录成功不占手机号的限流次数
+        loginRateLimiter.recordLoginSuccess(cleanPhone);
 
-        // ================== 🔥 核心修复：添加第 9 期的判断逻辑 🔥 ==================
-        
-        List<Map<String, Object>> resultList = new java.util.ArrayList<>();
-
-        for (Teacher t : teachers) {
-            Map<String, Object> item = new HashMap<>();
-            // 复制基础属性
-            item.put("id", t.getId());
-            item.put("name", t.getName());
-            item.put("phone", t.getPhone());
-            item.put("idCard", t.getIdCard());
-            item.put("category", t.getCategory());
-            item.put("score", t.getScore());
-            item.put("certificateNo", t.getCertificateNo());
-            item.put("level", t.getLevel());
-            item.put("sessions", t.getSessions());
-
-            // 🔥🔥🔥 升级后的 Batch 判断逻辑 🔥🔥🔥
-            String batch = "7"; // 默认兜底是 7
-            String sessions = t.getSessions();
-            
-            if (sessions != null) {
-                // 必须处理乱码或中文情况，同时匹配 "9" 和 "九"
-                if (sessions.contains("9") || sessions.contains("九")) {
-                    batch = "9";
-                } else if (sessions.contains("8") || sessions.contains("八")) {
-                    batch = "8";
-                } else if (sessions.contains("7") || sessions.contains("七")) {
-                    batch = "7";
-                }
-            }
-            
-            // 调试日志 (可选，上线可删)
-            System.out.println("Processing ID: " + t.getId() + " | Session Raw: " + sessions + " | Result Batch: " + batch);
-
-            // 拼接链接
-            String idCard = t.getIdCard();
-            String imgUrl = OSS_BASE_URL + "preview/" + batch + "_" + idCard + "_img.png";
-            String pdfUrl = OSS_BASE_URL + "certs/" + batch + "_" + idCard + "_pdf.pdf";
-
-            item.put("imgUrl", imgUrl);
-            item.put("pdfUrl", pdfUrl);
-
-            resultList.add(item);
+        // 每条记录的 JSON 已预先编码，响应体直接拼接片段写出 (见 SplicedJsonHttpMessageConverter)
+        LoginResponseFragments.Fragments fragments = loginResponseFragments.forPhone(cleanPhone, teachers);
+        for (String batch : fragments.batches()) {
+            loginMetrics.batchServed(batch);
         }
+        LoginResponseFragments.SplicedJson resp = loginResponseFragments.loginBody(fragments,
+                sessionTokens.issue(cleanPhone), sessionTokens.ttlSeconds());
 
-        // ===================================================================
-
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("code", 200);
-        resp.put("msg", "登录成功");
-        resp.put("userList", resultList); 
-
+        loginMetrics.loginStage(LoginMetrics.ASSEMBLE, System.nanoTime() - checked);
+        loginMetrics.loginOutcome(LoginMetrics.SUCCESS);
+        loginEventLogger.log(LoginEventLogger.LOGIN_SUCCESS, cleanPhone, teachers.size(), start, null);
         return ResponseEntity.ok(resp);
     }
 
     // ==========================================
-    // 2. 找回账号接口 (保留)
+    // 2. 刷新证书列表：Authorization: Bearer <登录返回的 token>
+    //    令牌校验不查库，列表来自缓存；带 If-None-Match 且没有变化时返回 304
+    // ==========================================
+    @GetMapping("/me")
+    @CrossOrigin(exposedHeaders = HttpHeaders.ETAG)
+    public ResponseEntity<?> me(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                WebRequest webRequest) {
+        // 只在全站维护时拒绝；仅配置测试密钥时，用密钥登录的测试账号要能刷新列表
+        if (maintenanceState.isClosed()) {
+            loginMetrics.meOutcome(LoginMetrics.MAINTENANCE);
+            return ResponseEntity.status(403).body(Collections.singletonMap("message", "当前系统正在维护中"));
+        }
+        String phone = sessionTokens.verify(bearerToken(authorization));
+        if (phone == null) {
+            loginMetrics.meOutcome(LoginMetrics.UNAUTHORIZED);
+            return ResponseEntity.status(401).body(Collections.singletonMap("message", "登录已过期，请重新登录"));
+        }
+        CertificateListCache.View view = certificateListCache.view(phone);
+        if (view == null) {
+            // 令牌有效但记录已被删除
+            loginMetrics.meOutcome(LoginMetrics.NOT_FOUND);
+            return ResponseEntity.status(401).body(Collections.singletonMap("message", "登录已过期，请重新登录"));
+        }
+        if (webRequest.checkNotModified(view.etag())) {
+            loginMetrics.meOutcome(LoginMetrics.NOT_MODIFIED);
+            return null;
+        }
+        loginMetrics.meOutcome(LoginMetrics.SUCCESS);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(view.etag())
+                .body(view.body());
+    }
+
+    // ==========================================
+    // 3. 找回账号接口 (保留)
     // ==========================================
     @PostMapping("/findAccount")
     public String findAccount(@RequestBody Map<String, String> request) {
-        if (maintenanceMode) {
-            String inputKey = request.get("secretKey");
-            if (inputKey == null || !inputKey.equals(maintenanceKey)) {
-                throw new RuntimeException("系统维护中");
-            }
+        long start = System.nanoTime();
+        if (maintenanceState.blocksFindAccount(request.get("secretKey"))) {
+            loginMetrics.findAccountOutcome(LoginMetrics.MAINTENANCE);
+            throw new RuntimeException("系统维护中");
         }
 
         String name = request.get("name");
         String idCard = request.get("idCard");
 
         if (name == null || idCard == null) {
+            loginMetrics.findAccountOutcome(LoginMetrics.EMPTY_INPUT);
             throw new RuntimeException("输入不能为空");
         }
         
         if (!IDCARD_PATTERN.matcher(idCard.trim()).matches()) {
+            loginMetrics.findAccountOutcome(LoginMetrics.BAD_FORMAT);
             throw new RuntimeException("身份证号码格式不正确");
         }
+        long retryAfter = loginRateLimiter.checkFindAccount(idCard.trim());
+        if (retryAfter > 0) {
+            loginMetrics.findAccountOutcome(LoginMetrics.RATE_LIMITED);
+            loginEventLogger.log(LoginEventLogger.FIND_ACCOUNT, null, 0, start, "RATE_LIMITED");
+            throw new RateLimitedException(retryAfter);
+        }
+        long validated = System.nanoTime();
+        loginMetrics.findAccountStage(LoginMetrics.VALIDATE, validated - start);
 
-        List<Teacher> teachers = teacherRepository.findByNameAndIdCard(name.trim(), idCard.trim());
+        String lookupKey = TeacherLookupKey.of(name, idCard);
+        List<String> phones = lookupKey == null ? List.of()
+                : dbAccessGate.call(() -> teacherRepository.findPhonesByLookupKey(lookupKey));
+        if (phones.isEmpty() && lookupKey != null && !lookupKeyBackfillJob.isComplete()) {
+            phones = dbAccessGate.call(() -> teacherRepository.findPhonesByNameAndIdCard(name.trim(), idCard.trim()));
+        }
+        loginMetrics.findAccountStage(LoginMetrics.QUERY, System.nanoTime() - validated);
 
-        if (teachers == null || teachers.isEmpty()) {
+        if (phones == null || phones.isEmpty()) {
+            loginMetrics.findAccountOutcome(LoginMetrics.NOT_FOUND);
+            loginEventLogger.log(LoginEventLogger.FIND_ACCOUNT, null, 0, start, "NOT_FOUND");
             throw new RuntimeException("未找到匹配的教师信息");
         }
 
-        return teachers.get(0).getPhone();
+        loginMetrics.findAccountOutcome(LoginMetrics.SUCCESS);
+        loginEventLogger.log(LoginEventLogger.FIND_ACCOUNT, phones.get(0), phones.size(), start, null);
+        return phones.get(0);
     }
     
-    // ❌ 已删除 previewCertificate 方法 (不再需要在服务器生成预览)
-    // ❌ 已删除 downloadCertificate 方法 (不再需要在服务器生成PDF)
+    static String bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return authorization.substring(7).trim();
+    }
+
+    // 登录各阶段拆成小方法，便于基准测试单独测量 (见 src/test 下的 LoginBenchmark)
+    static boolean isValidPhone(String phone) {
+        return TeacherCredentials.isValidPhone(phone);
+    }
+
+    // 同一手机号下任意一条记录的明文密码匹配即可登录 (哈希校验见 PasswordVerifier)
+    static boolean passwordMatches(List<TeacherLoginView> teachers, String password) {
+        for (TeacherLoginView t : teachers) {
+            if (TeacherCredentials.matches(t.password(), password)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 证书由 CertificateRenderer 在服务器端按期数批量预生成成静态文件 (POST /admin/certificates/render)，
+    // 登录接口只返回文件地址，不在请求里现场生成；调模板用的现场预览见 GET /admin/certificates/preview
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.library.library_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// 期数登记表：新增一期 (例如第 10 期) 只需要插入一行，不用改代码
+@Data
+@Entity
+@Table(name = "teacher_batch")
+public class BatchDefinition {
+
+    // 期数 (对应证书链接里的 {batch})
+    @Id
+    @Column(name = "batchNo")
+    private Integer batchNo;
+
+    // teacherSessions 里可能出现的写法，逗号分隔，例如 "9,九"
+    @Column(name = "aliases")
+    private String aliases;
+
+    // 备注
+    @Column(name = "description")
+    private String description;
+}
@@ -0,0 +1,47 @@
+package com.library.library_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// 数据健康检查报告：每次检查一行，便于定时任务和运维接口查看历史结果
+@Data
+@Entity
+@Table(name = "health_check_report")
+public class HealthCheckReport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // RUNNING / SUCCESS / FAILED
+    private String status;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long totalRows;
+
+    // teacherTel 和 teacherReal 都为空的幽灵行
+    private long ghostRows;
+
+    private long missingPhone;
+
+    private long missingPassword;
+
+    private long missingIdCard;
+
+    // 重复手机号的组数 / 重复身份证的组数
+    private long duplicatePhoneGroups;
+
+    private long duplicateIdCardGroups;
+
+    // 明细 (每行一条，最多 app.health-check.max-findings 条)
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String findings;
+
+    private String errorMessage;
+}
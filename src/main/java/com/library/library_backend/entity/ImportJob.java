@@ -0,0 +1,41 @@
+package com.library.library_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// DBF 导入任务及断点：processedRecords 与数据在同一事务里提交，中断后从这里续传
+@Data
+@Entity
+@Table(name = "import_job")
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String fileName;
+
+    // 文件大小 + 修改时间 + 记录数，用来判断续传的是不是同一个文件
+    private String fingerprint;
+
+    // RUNNING / COMPLETED / FAILED
+    private String status;
+
+    private long totalRecords;
+
+    // 已提交的 DBF 记录数 (下一次从这条开始)
+    private long processedRecords;
+
+    private long insertedRows;
+
+    // 已删除的记录、缺手机号的记录、库里已存在的记录
+    private long skippedRows;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private String errorMessage;
+}
@@ -1,11 +1,18 @@
 package com.library.library_backend.entity;
 
+import com.library.library_backend.service.TeacherLookupKey;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "user_teacher") // 确认表名是 user_teacher
+// 确认表名是 user_teacher；登录按手机号查、找回账号按查询键查 (回填期间退回姓名+身份证)，都要有索引 (启动时由 QueryPlanVerifier 检查)
+@Table(name = "user_teacher", indexes = {
+        @Index(name = "idx_teacher_tel", columnList = "teacherTel"),
+        @Index(name = "idx_teacher_name_idcard", columnList = "teacherReal, teacherIDCa"),
+        @Index(name = "idx_teacher_lookup_key", columnList = "teacherLookupKey")
+})
+@EntityListeners(TeacherChangeListener.class) // 保存/删除时让登录缓存失效
 public class Teacher {
 
     @Id
@@ -44,6 +51,10 @@ public class Teacher {
     @Column(name = "teacherIDNu")
     private String password; 
 
+    // 密码的 PBKDF2 哈希 (PasswordHashes)，由 PasswordMigrationJob 计算；改密码时监听把它清空，等迁移任务重算
+    @Column(name = "teacherPwdHash", length = 128)
+    private String passwordHash;
+
     // 9. 证书编号后面的数字
     @Column(name = "teacherCert1")
     private String certSuffix;
@@ -51,4 +62,18 @@ public class Teacher {
     // 🔥🔥【新增】对应数据库里的 teacherSessions 字段 (期数)
     @Column(name = "teacherSessions")
     private String sessions; 
+
+    // 由 teacherSessions 解析出的期数，写入/导入时计算一次，登录直接读取
+    @Column(name = "teacherBatch")
+    private Integer batch;
+
+    // 找回账号用的查询键 (TeacherLookupKey)，写入/导入时由姓名和身份证计算
+    @Column(name = "teacherLookupKey", length = TeacherLookupKey.LENGTH)
+    private String lookupKey;
+
+    // 加载时的手机号 (不入库)，改号时用于让旧号码的缓存失效
+    private transient String loadedPhone;
+
+    // 加载时的密码 (不入库)，密码没变时不清空哈希
+    private transient String loadedPassword;
 }
\ No newline at end of file
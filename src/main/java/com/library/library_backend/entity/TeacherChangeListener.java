@@ -0,0 +1,96 @@
+package com.library.library_backend.entity;
+
+import com.library.library_backend.service.BatchResolver;
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.TeacherLookupCache;
+import com.library.library_backend.service.TeacherLookupKey;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Teacher 的 JPA 生命周期监听：
+ * 写入前由 teacherSessions 计算期数、由姓名和身份证计算查询键；保存/删除后让登录缓存失效，新号码加入 Bloom 过滤器。
+ * 改手机号时旧号码和新号码都要失效，所以加载时记下原始手机号。
+ * 密码变了就清空哈希 (登录回退到明文比对)，由 PasswordMigrationJob 在后台重算：PBKDF2 不放在 flush 线程上算。
+ * 失效在事务提交之后执行：flush 时还没提交，这时失效的话并发登录会把旧数据重新读进缓存，一直留到 TTL 到期。
+ */
+public class TeacherChangeListener {
+
+    // 用 ObjectProvider 延迟获取，避免 EntityManagerFactory 和缓存之间的循环依赖
+    @Autowired
+    private ObjectProvider<TeacherLookupCache> lookupCache;
+
+    @Autowired
+    private ObjectProvider<BatchResolver> batchResolver;
+
+    @Autowired
+    private ObjectProvider<PhoneBloomFilter> phoneBloomFilter;
+
+    @PostLoad
+    public void rememberLoaded(Teacher teacher) {
+        teacher.setLoadedPhone(teacher.getPhone());
+        teacher.setLoadedPassword(teacher.getPassword());
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void deriveColumns(Teacher teacher) {
+        teacher.setLookupKey(TeacherLookupKey.of(teacher.getName(), teacher.getIdCard()));
+        // 新记录的 loadedPassword 为空，同样清空哈希
+        if (!Objects.equals(teacher.getPassword(), teacher.getLoadedPassword())) {
+            teacher.setPasswordHash(null);
+        }
+        BatchResolver resolver = batchResolver.getIfAvailable();
+        if (resolver != null) {
+            teacher.setBatch(resolver.resolve(teacher.getSessions()));
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Teacher teacher) {
+        PhoneBloomFilter filter = phoneBloomFilter.getIfAvailable();
+        TeacherLookupCache cache = lookupCache.getIfAvailable();
+        String phone = teacher.getPhone();
+        String loadedPhone = teacher.getLoadedPhone();
+        teacher.setLoadedPhone(phone);
+        teacher.setLoadedPassword(teacher.getPassword());
+        afterCommit(() -> {
+            // 手机号加入 Bloom 过滤器；过滤器不支持删除，删掉的号码在定时重建时清掉
+            if (filter != null) {
+                filter.add(phone);
+            }
+            if (cache != null) {
+                cache.invalidate(phone);
+                if (loadedPhone != null) {
+                    cache.invalidate(loadedPhone);
+                }
+            }
+        });
+    }
+
+    // 有事务时注册到提交之后执行 (回滚则不执行)；没有事务时立即执行
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package com.library.library_backend.importer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * dBase III (.dbf) 流式读取：只解析文件头和字段定义，记录按块读取，不整体载入内存。
+ * 记录定长，可以直接 seek 到第 N 条 (导入中断后续传用)。非线程安全。
+ */
+public class DbfReader implements Closeable {
+
+    private static final int HEADER_SIZE = 32;
+    private static final int FIELD_DESCRIPTOR_SIZE = 32;
+    private static final byte FIELD_TERMINATOR = 0x0D;
+    private static final byte END_OF_FILE = 0x1A;
+    private static final byte DELETED = '*';
+
+    // 字段定义：名称、类型 (C/N/D/L...)、字节长度
+    public record Field(String name, char type, int length) {
+    }
+
+    // 一条记录：序号 (从 0 开始)、是否已删除、按字段顺序的值 (已去掉填充空格)
+    public record Record(long index, boolean deleted, String[] values) {
+    }
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final List<Field> fields;
+    private final long recordCount;
+    private final int headerLength;
+    private final int recordLength;
+    private final ByteBuffer buffer;
+    // 单个字段最长 255 字节，复用同一块缓冲
+    private final byte[] scratch = new byte[256];
+
+    private long nextIndex;
+
+    public DbfReader(Path file, Charset charset, int bufferRecords) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.charset = charset;
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(header, 0);
+            this.recordCount = Integer.toUnsignedLong(header.getInt(4));
+            this.headerLength = Short.toUnsignedInt(header.getShort(8));
+            this.recordLength = Short.toUnsignedInt(header.getShort(10));
+            this.fields = readFields();
+            this.buffer = ByteBuffer.allocate(recordLength * Math.max(1, bufferRecords));
+            this.buffer.flip();
+            seek(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<Field> fields() {
+        return fields;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    // 跳到第 index 条记录，下一次 next() 从这里开始
+    public void seek(long index) throws IOException {
+        this.nextIndex = Math.min(index, recordCount);
+        channel.position(headerLength + nextIndex * recordLength);
+        buffer.clear().flip();
+    }
+
+    // 读下一条记录，读完返回 null
+    public Record next() throws IOException {
+        if (nextIndex >= recordCount) {
+            return null;
+        }
+        if (buffer.remaining() < recordLength) {
+            buffer.compact();
+            while (buffer.position() < recordLength) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("DBF 文件在第 " + nextIndex + " 条记录处意外结束");
+                }
+            }
+            buffer.flip();
+        }
+        byte flag = buffer.get();
+        if (flag == END_OF_FILE) {
+            nextIndex = recordCount;
+            return null;
+        }
+        String[] values = new String[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            int len = fields.get(i).length();
+            buffer.get(scratch, 0, len);
+            values[i] = decode(scratch, len);
+        }
+        return new Record(nextIndex++, flag == DELETED, values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private List<Field> readFields() throws IOException {
+        List<Field> result = new ArrayList<>();
+        ByteBuffer descriptor = ByteBuffer.allocate(FIELD_DESCRIPTOR_SIZE);
+        long pos = HEADER_SIZE;
+        while (pos + 1 < headerLength) {
+            descriptor.clear();
+            int read = channel.read(descriptor, pos);
+            if (read < 1 || descriptor.get(0) == FIELD_TERMINATOR) {
+                break;
+            }
+            if (read < FIELD_DESCRIPTOR_SIZE) {
+                throw new EOFException("DBF 字段定义不完整");
+            }
+            int nameLen = 0;
+            while (nameLen < 11 && descriptor.get(nameLen) != 0) {
+                nameLen++;
+            }
+            String name = new String(descriptor.array(), 0, nameLen, charset).trim();
+            char type = (char) descriptor.get(11);
+            int length = Byte.toUnsignedInt(descriptor.get(16));
+            result.add(new Field(name, type, length));
+            pos += FIELD_DESCRIPTOR_SIZE;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    // 去掉两侧的空格/0 填充 (字符型右补空格，数值型左补空格)
+    private String decode(byte[] raw, int len) {
+        int start = 0;
+        int end = len;
+        while (end > 0 && (raw[end - 1] == ' ' || raw[end - 1] == 0)) {
+            end--;
+        }
+        while (start < end && raw[start] == ' ') {
+            start++;
+        }
+        return start == end ? null : new String(raw, start, end - start, charset);
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) < 0) {
+                throw new EOFException("不是有效的 DBF 文件");
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.library.library_backend.importer;
+
+import com.library.library_backend.entity.ImportJob;
+import com.library.library_backend.repository.ImportJobRepository;
+import com.library.library_backend.service.BatchResolver;
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.TeacherLookupCache;
+import com.library.library_backend.service.TeacherLookupKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * user_teacher 的 DBF 批量导入：流式读取 DBF，按块用 JDBC 批量插入 (不走 JPA save)。
+ * 每块数据和断点在同一个事务里提交，任务失败后用 resume 从最后提交的位置继续。
+ * 导入在单独的单线程里执行，块与块之间可以停顿，尽量不影响线上登录。
+ */
+@Service
+public class TeacherImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeacherImportService.class);
+
+    // user_teacher 中可由 DBF 导入的列 (teacherBatch 由 BatchResolver 计算，teacherLookupKey 由 TeacherLookupKey 计算)
+    static final List<String> COLUMNS = List.of(
+            "teacherReal", "teacherTel", "teacherIDCa", "teacherClas", "teacherGrad",
+            "teacherCert", "teacherLeve", "teacherIDNu", "teacherCert1", "teacherSessions");
+
+    private static final String INSERT_SQL = "INSERT INTO user_teacher (" + String.join(", ", COLUMNS)
+            + ", teacherBatch, teacherLookupKey) VALUES (" + "?, ".repeat(COLUMNS.size() + 1) + "?)";
+
+    private static final String CHECKPOINT_SQL = "UPDATE import_job SET processedRecords = ?, insertedRows = ?, "
+            + "skippedRows = ?, updatedAt = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportJobRepository importJobRepository;
+    private final BatchResolver batchResolver;
+    private final TeacherLookupCache teacherLookupCache;
+    private final PhoneBloomFilter phoneBloomFilter;
+
+    // 导入任务串行执行
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "teacher-import");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.import.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${app.import.charset:GBK}")
+    private String charset;
+
+    @Value("${app.import.pause-between-chunks:20ms}")
+    private Duration pauseBetweenChunks;
+
+    // 库里已有相同 (手机号, 身份证, 期数) 的记录时跳过，重复导入同一文件不会产生重复数据
+    @Value("${app.import.skip-existing:true}")
+    private boolean skipExisting;
+
+    // DBF 字段名与列名不一致时手工指定，格式 "DBF字段:列名,DBF字段:列名"
+    @Value("${app.import.column-map:}")
+    private String columnMapOverride;
+
+    public TeacherImportService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                                TransactionTemplate transactionTemplate, ImportJobRepository importJobRepository,
+                                BatchResolver batchResolver, TeacherLookupCache teacherLookupCache,
+                                PhoneBloomFilter phoneBloomFilter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.importJobRepository = importJobRepository;
+        this.batchResolver = batchResolver;
+        this.teacherLookupCache = teacherLookupCache;
+        this.phoneBloomFilter = phoneBloomFilter;
+    }
+
+    // 后台导入，立即返回任务 (用 id 查询进度)
+    public ImportJob start(Path file, boolean resume) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有导入任务正在运行");
+        }
+        try {
+            ImportJob job = prepare(file, resume);
+            executor.execute(() -> {
+                try {
+                    execute(job, file);
+                } finally {
+                    running.set(false);
+                }
+            });
+            return job;
+        } catch (IOException | RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    // 同步导入 (测试 / 命令行用)
+    public ImportJob runNow(Path file, boolean resume) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有导入任务正在运行");
+        }
+        try {
+            return execute(prepare(file, resume), file);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ImportJob prepare(Path file, boolean resume) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("找不到导入文件: " + file);
+        }
+        long recordCount;
+        try (DbfReader reader = new DbfReader(file, Charset.forName(charset), 1)) {
+            recordCount = reader.recordCount();
+            resolveColumns(reader.fields());
+        }
+        String fingerprint = file.getFileName() + ":" + Files.size(file) + ":"
+                + Files.getLastModifiedTime(file).toMillis() + ":" + recordCount;
+
+        if (resume) {
+            var unfinished = importJobRepository.findTopByFingerprintAndStatusNotOrderByIdDesc(fingerprint, "COMPLETED");
+            if (unfinished.isPresent()) {
+                ImportJob job = unfinished.get();
+                log.info("续传导入任务 {}: 从第 {} 条记录开始", job.getId(), job.getProcessedRecords());
+                job.setStatus("RUNNING");
+                job.setErrorMessage(null);
+                job.setUpdatedAt(LocalDateTime.now());
+                return importJobRepository.save(job);
+            }
+        }
+
+        ImportJob job = new ImportJob();
+        job.setFileName(file.toString());
+        job.setFingerprint(fingerprint);
+        job.setStatus("RUNNING");
+        job.setTotalRecords(recordCount);
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getStartedAt());
+        return importJobRepository.save(job);
+    }
+
+    private ImportJob execute(ImportJob job, Path file) {
+        long start = System.nanoTime();
+        long startRecord = job.getProcessedRecords();
+        // 导入期间和结束后一段时间内，Bloom 过滤器的未命中不直接判定为账号不存在
+        phoneBloomFilter.holdOff();
+        try (DbfReader reader = new DbfReader(file, Charset.forName(charset), chunkSize)) {
+            int[] fieldIndex = resolveColumns(reader.fields());
+            reader.seek(startRecord);
+
+            List<Object[]> rows = new ArrayList<>(chunkSize);
+            long[] counters = {job.getProcessedRecords(), job.getInsertedRows(), job.getSkippedRows()};
+            DbfReader.Record record;
+            int inChunk = 0;
+            while ((record = reader.next()) != null) {
+                inChunk++;
+                Object[] row = toRow(record, fieldIndex);
+                if (row == null) {
+                    counters[2]++;
+                } else {
+                    rows.add(row);
+                }
+                if (inChunk == chunkSize) {
+                    commitChunk(job, rows, inChunk, counters);
+                    logProgress(job, counters, startRecord, start);
+                    rows.clear();
+                    inChunk = 0;
+                    pause();
+                }
+            }
+            if (inChunk > 0) {
+                commitChunk(job, rows, inChunk, counters);
+            }
+
+            job.setProcessedRecords(counters[0]);
+            job.setInsertedRows(counters[1]);
+            job.setSkippedRows(counters[2]);
+            job.setStatus("COMPLETED");
+        } catch (Exception e) {
+            log.error("导入任务 {} 失败，已提交到第 {} 条记录，可用 resume 续传", job.getId(), job.getProcessedRecords(), e);
+            // 断点以数据库里已提交的为准
+            importJobRepository.findById(job.getId()).ifPresent(saved -> {
+                job.setProcessedRecords(saved.getProcessedRecords());
+                job.setInsertedRows(saved.getInsertedRows());
+                job.setSkippedRows(saved.getSkippedRows());
+            });
+            job.setStatus("FAILED");
+            String message = String.valueOf(e.getMessage());
+            job.setErrorMessage(message.length() > 255 ? message.substring(0, 255) : message);
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        ImportJob saved = importJobRepository.save(job);
+
+        // 绕过了 JPA，登录缓存整体失效
+        teacherLookupCache.invalidateAll();
+        phoneBloomFilter.holdOff();
+        log.info("导入任务 {} 结束: status={}, processed={}/{}, inserted={}, skipped={}, {} ms",
+                saved.getId(), saved.getStatus(), saved.getProcessedRecords(), saved.getTotalRecords(),
+                saved.getInsertedRows(), saved.getSkippedRows(), (System.nanoTime() - start) / 1_000_000);
+        return saved;
+    }
+
+    // 一块数据 + 断点在同一事务提交
+    private void commitChunk(ImportJob job, List<Object[]> rows, int recordsInChunk, long[] counters) {
+        List<Object[]> toInsert = skipExisting ? withoutExisting(rows) : rows;
+        long skipped = rows.size() - toInsert.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!toInsert.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, toInsert);
+            }
+            jdbcTemplate.update(CHECKPOINT_SQL, counters[0] + recordsInChunk, counters[1] + toInsert.size(),
+                    counters[2] + skipped, Timestamp.valueOf(LocalDateTime.now()), job.getId());
+        });
+        int tel = COLUMNS.indexOf("teacherTel");
+        for (Object[] row : toInsert) {
+            phoneBloomFilter.add((String) row[tel]);
+        }
+        counters[0] += recordsInChunk;
+        counters[1] += toInsert.size();
+        counters[2] += skipped;
+        job.setProcessedRecords(counters[0]);
+        job.setInsertedRows(counters[1]);
+        job.setSkippedRows(counters[2]);
+    }
+
+    // 一次 IN 查询取出本块手机号已有的记录，按 (手机号, 身份证, 期数) 去重
+    private List<Object[]> withoutExisting(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        int tel = COLUMNS.indexOf("teacherTel");
+        int idCard = COLUMNS.indexOf("teacherIDCa");
+        int sessions = COLUMNS.indexOf("teacherSessions");
+
+        Set<String> phones = new HashSet<>();
+        for (Object[] row : rows) {
+            phones.add((String) row[tel]);
+        }
+        Set<String> existing = new HashSet<>();
+        namedJdbcTemplate.query("SELECT teacherTel, teacherIDCa, teacherSessions FROM user_teacher WHERE teacherTel IN (:phones)",
+                new MapSqlParameterSource("phones", phones),
+                rs -> {
+                    existing.add(dedupKey(rs.getString(1), rs.getString(2), rs.getString(3)));
+                });
+
+        List<Object[]> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // add 返回 false 说明库里已有，或本块内重复
+            if (existing.add(dedupKey((String) row[tel], (String) row[idCard], (String) row[sessions]))) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static String dedupKey(String phone, String idCard, String sessions) {
+        return trim(phone) + "|" + trim(idCard) + "|" + trim(sessions);
+    }
+
+    // 已删除或没有手机号的记录不导入
+    private Object[] toRow(DbfReader.Record record, int[] fieldIndex) {
+        if (record.deleted()) {
+            return null;
+        }
+        Object[] row = new Object[COLUMNS.size() + 2];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            row[i] = fieldIndex[i] < 0 ? null : record.values()[fieldIndex[i]];
+        }
+        if (row[COLUMNS.indexOf("teacherTel")] == null) {
+            return null;
+        }
+        row[COLUMNS.size()] = batchResolver.resolve((String) row[COLUMNS.indexOf("teacherSessions")]);
+        row[COLUMNS.size() + 1] = TeacherLookupKey.of((String) row[COLUMNS.indexOf("teacherReal")],
+                (String) row[COLUMNS.indexOf("teacherIDCa")]);
+        return row;
+    }
+
+    /**
+     * 把 DBF 字段对应到列：先看手工映射，再按名称 (忽略大小写) 精确匹配，
+     * 最后兼容 DBF 字段名 10 个字符的截断 (例如 teacherSes -> teacherSessions)。
+     */
+    int[] resolveColumns(List<DbfReader.Field> fields) {
+        Map<String, String> overrides = new HashMap<>();
+        if (columnMapOverride != null && !columnMapOverride.isBlank()) {
+            for (String pair : columnMapOverride.split(",")) {
+                String[] kv = pair.split(":");
+                if (kv.length == 2) {
+                    overrides.put(kv[1].trim().toLowerCase(Locale.ROOT), kv[0].trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        Map<String, Integer> byName = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            byName.put(fields.get(i).name().toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] index = new int[COLUMNS.size()];
+        Set<Integer> used = new HashSet<>();
+        for (int c = 0; c < COLUMNS.size(); c++) {
+            String column = COLUMNS.get(c).toLowerCase(Locale.ROOT);
+            Integer i = byName.get(overrides.getOrDefault(column, column));
+            index[c] = i == null ? -1 : i;
+            if (i != null) {
+                used.add(i);
+            }
+        }
+        for (int c = 0; c < COLUMNS.size(); c++) {
+            if (index[c] >= 0) {
+                continue;
+            }
+            String column = COLUMNS.get(c).toLowerCase(Locale.ROOT);
+            for (Map.Entry<String, Integer> field : byName.entrySet()) {
+                if (!used.contains(field.getValue()) && field.getKey().length() >= 10 && column.startsWith(field.getKey())) {
+                    index[c] = field.getValue();
+                    used.add(field.getValue());
+                    break;
+                }
+            }
+        }
+        if (index[COLUMNS.indexOf("teacherTel")] < 0) {
+            throw new IllegalArgumentException("DBF 中找不到手机号字段 teacherTel，字段列表: " + byName.keySet());
+        }
+        return index;
+    }
+
+    private void logProgress(ImportJob job, long[] counters, long startRecord, long startNanos) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        log.info("导入任务 {} 进度: {}/{} 条，新增 {}，跳过 {}，{} 条/秒", job.getId(), counters[0], job.getTotalRecords(),
+                counters[1], counters[2], String.format("%.0f", (counters[0] - startRecord) / seconds));
+    }
+
+    private void pause() throws InterruptedException {
+        if (!pauseBetweenChunks.isZero()) {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+        }
+    }
+
+    private static String trim(String s) {
+        return s == null ? "" : s.trim();
+    }
+}
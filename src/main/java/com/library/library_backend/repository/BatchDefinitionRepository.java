@@ -0,0 +1,9 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.entity.BatchDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BatchDefinitionRepository extends JpaRepository<BatchDefinition, Integer> {
+}
@@ -0,0 +1,13 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.entity.HealthCheckReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HealthCheckReportRepository extends JpaRepository<HealthCheckReport, Long> {
+
+    Optional<HealthCheckReport> findTopByOrderByIdDesc();
+}
@@ -0,0 +1,14 @@
+package com.library.library_backend.repository;
+
+import com.library.library_backend.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    // 同一文件最近一次未完成的任务 (续传用)
+    Optional<ImportJob> findTopByFingerprintAndStatusNotOrderByIdDesc(String fingerprint, String status);
+}
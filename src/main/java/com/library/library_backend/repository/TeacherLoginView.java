@@ -0,0 +1,11 @@
+package com.library.library_backend.repository;
+
+/**
+ * 登录用的只读投影：只查登录校验和响应需要的列，不进持久化上下文、没有脏检查。
+ * 字段顺序与 TeacherRepository 里的 select new 构造表达式一致。
+ * password 只在还没有哈希 (passwordHash 为空) 时才有值，迁移过的记录只带哈希。
+ */
+public record TeacherLoginView(Long id, String name, String phone, String idCard, String category,
+                               String score, String certificateNo, String level, String password,
+                               String sessions, Integer batch, String passwordHash) {
+}
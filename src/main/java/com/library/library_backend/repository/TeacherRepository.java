@@ -1,11 +1,17 @@
 package com.library.library_backend.repository;
 
+import com.library.library_backend.config.ReplicaRead;
 import com.library.library_backend.entity.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List; // 记得导入 List
 
 @Repository
+// 配置了只读副本时，声明的查询方法在事务外调用发往副本 (ReplicaRead)；不开只读事务，未配置副本时登录查询不多走一趟事务
+@ReplicaRead
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     
     // 兼容旧代码的方法 (如果数据有重复，调用这个可能会报错，暂时留着没关系)
@@ -16,4 +22,26 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
 
     // 🔥🔥【修改】找回账号：可能查出多条记录（多期），所以必须返回 List
     List<Teacher> findByNameAndIdCard(String name, String idCard);
+
+    // 登录专用：只取登录用到的列，直接构造成 record，不加载实体；已有哈希的记录不取明文密码 (不进登录缓存)
+    @Query("select new com.library.library_backend.repository.TeacherLoginView(t.id, t.name, t.phone, t.idCard, "
+            + "t.category, t.score, t.certificateNo, t.level, case when t.passwordHash is null then t.password else null end, "
+            + "t.sessions, t.batch, t.passwordHash) "
+            + "from Teacher t where t.phone = :phone")
+    List<TeacherLoginView> findLoginViewsByPhone(@Param("phone") String phone);
+
+    // 批量查询专用：一次 IN 查多个手机号，调用方负责分块 (见 TeacherBulkLookupService)
+    @Query("select new com.library.library_backend.repository.TeacherLoginView(t.id, t.name, t.phone, t.idCard, "
+            + "t.category, t.score, t.certificateNo, t.level, case when t.passwordHash is null then t.password else null end, "
+            + "t.sessions, t.batch, t.passwordHash) "
+            + "from Teacher t where t.phone in :phones")
+    List<TeacherLoginView> findLoginViewsByPhoneIn(@Param("phones") Collection<String> phones);
+
+    // 找回账号专用：按查询键 (TeacherLookupKey) 查手机号，单列定长索引
+    @Query("select t.phone from Teacher t where t.lookupKey = :lookupKey")
+    List<String> findPhonesByLookupKey(@Param("lookupKey") String lookupKey);
+
+    // 找回账号旧路径：查询键回填完成前的兜底，只需要手机号
+    @Query("select t.phone from Teacher t where t.name = :name and t.idCard = :idCard")
+    List<String> findPhonesByNameAndIdCard(@Param("name") String name, @Param("idCard") String idCard);
 }
\ No newline at end of file
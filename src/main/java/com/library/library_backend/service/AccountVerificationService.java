@@ -0,0 +1,249 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 全量账号可登录性校验 (原 GlobalAccountHealthCheckTest 的线上版本)。
+ * 一次性按手机号分组读出账号和密码，在虚拟线程上并发校验，不经过控制器、不逐个查库。
+ * 判定规则与登录接口一致：手机号格式、按 trim 后手机号能否查到、存储的密码能否登录。
+ */
+@Service
+public class AccountVerificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountVerificationService.class);
+
+    private static final String SCAN_SQL = "SELECT id, teacherTel, teacherIDNu FROM user_teacher "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+
+    // 一条账号记录 (只取登录需要的列)
+    public record Credential(long id, String rawPhone, String password) {
+    }
+
+    public record BrokenAccount(String phone, int records, String reason, List<Long> ids) {
+    }
+
+    public record VerificationResult(long totalRecords, long phones, long passed, long broken,
+                                     long elapsedMs, double phonesPerSecond,
+                                     List<BrokenAccount> brokenAccounts, String outputFile) {
+    }
+
+    public record Progress(boolean running, long total, long completed, long broken, double phonesPerSecond) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.verification.concurrency:64}")
+    private int concurrency = 64;
+
+    @Value("${app.verification.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    @Value("${app.verification.progress-interval:1s}")
+    private Duration progressInterval = Duration.ofSeconds(1);
+
+    // 结果 JSON 的输出目录，留空则不落盘
+    @Value("${app.verification.output-dir:}")
+    private String outputDir = "";
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong brokenCount = new AtomicLong();
+    private volatile long startedNanos;
+
+    public AccountVerificationService(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // 读全表 (只取三列) 后校验
+    public VerificationResult verifyAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("账号校验正在运行中");
+        }
+        try {
+            long start = System.nanoTime();
+            long[] records = {0};
+            Map<String, List<Credential>> groups = loadGroups(records);
+            log.info("账号校验：读取 {} 条记录，{} 个手机号，耗时 {} ms",
+                    records[0], groups.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return verify(groups, records[0]);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 校验已分组的账号 (key 为 trim 后的手机号)。每个手机号一个虚拟线程任务，
+     * 同时在途的任务数受 concurrency 限制。
+     */
+    public VerificationResult verify(Map<String, List<Credential>> groups, long totalRecords) {
+        total.set(groups.size());
+        completed.set(0);
+        brokenCount.set(0);
+        startedNanos = System.nanoTime();
+
+        ConcurrentLinkedQueue<BrokenAccount> broken = new ConcurrentLinkedQueue<>();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long nextReport = startedNanos + progressInterval.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, List<Credential>> entry : groups.entrySet()) {
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        BrokenAccount result = check(entry.getKey(), entry.getValue());
+                        if (result != null) {
+                            broken.add(result);
+                            brokenCount.incrementAndGet();
+                        }
+                    } finally {
+                        completed.incrementAndGet();
+                        inFlight.release();
+                    }
+                });
+                if (System.nanoTime() >= nextReport) {
+                    logProgress();
+                    nextReport = System.nanoTime() + progressInterval.toNanos();
+                }
+            }
+        } // close() 等待全部任务结束
+
+        long elapsedNanos = System.nanoTime() - startedNanos;
+        List<BrokenAccount> brokenList = new ArrayList<>(broken);
+        brokenList.sort(Comparator.comparing(BrokenAccount::phone));
+        String outputFile = writeReport(brokenList);
+
+        VerificationResult result = new VerificationResult(totalRecords, groups.size(),
+                groups.size() - brokenList.size(), brokenList.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rate(groups.size(), elapsedNanos),
+                brokenList, outputFile);
+        log.info("账号校验完成: phones={}, passed={}, broken={}, {} ms, {} phones/s, 输出={}",
+                result.phones(), result.passed(), result.broken(), result.elapsedMs(),
+                String.format("%.0f", result.phonesPerSecond()), outputFile);
+        return result;
+    }
+
+    public Progress progress() {
+        long done = completed.get();
+        return new Progress(running.get(), total.get(), done, brokenCount.get(),
+                rate(done, System.nanoTime() - startedNanos));
+    }
+
+    // 单个手机号的判定，返回 null 表示可以正常登录
+    public static BrokenAccount check(String phone, List<Credential> records) {
+        List<Long> ids = records.stream().map(Credential::id).toList();
+
+        if (!TeacherCredentials.isValidPhone(phone)) {
+            return new BrokenAccount(phone, records.size(), "BAD_PHONE_FORMAT", ids);
+        }
+
+        // 登录按 trim 后的手机号做等值查询，只有尾部空格能被 MySQL 忽略
+        List<Credential> reachable = records.stream()
+                .filter(c -> isReachable(c.rawPhone(), phone))
+                .toList();
+        if (reachable.isEmpty()) {
+            return new BrokenAccount(phone, records.size(), "UNREACHABLE_PHONE", ids);
+        }
+
+        // 用户实际输入的是去掉空白的密码，必须能和某一条记录匹配
+        boolean hasPassword = false;
+        for (Credential c : reachable) {
+            if (c.password() == null || c.password().isBlank()) {
+                continue;
+            }
+            hasPassword = true;
+            String typed = c.password().trim();
+            for (Credential candidate : reachable) {
+                if (TeacherCredentials.matches(candidate.password(), typed)) {
+                    return null;
+                }
+            }
+        }
+        return new BrokenAccount(phone, records.size(), hasPassword ? "PASSWORD_WHITESPACE" : "NO_PASSWORD", ids);
+    }
+
+    private static boolean isReachable(String rawPhone, String phone) {
+        if (!rawPhone.startsWith(phone)) {
+            return false;
+        }
+        for (int i = phone.length(); i < rawPhone.length(); i++) {
+            if (rawPhone.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, List<Credential>> loadGroups(long[] records) {
+        Map<String, List<Credential>> groups = new HashMap<>();
+        long lastId = 0;
+        while (true) {
+            List<Credential> rows = jdbcTemplate.query(SCAN_SQL,
+                    (rs, i) -> new Credential(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                    lastId, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Credential c : rows) {
+                if (c.rawPhone() != null && !c.rawPhone().isBlank()) {
+                    groups.computeIfAbsent(c.rawPhone().trim(), k -> new ArrayList<>(1)).add(c);
+                }
+            }
+            records[0] += rows.size();
+            lastId = rows.get(rows.size() - 1).id();
+        }
+        return groups;
+    }
+
+    private void logProgress() {
+        Progress p = progress();
+        log.info("账号校验进度: {}/{}，异常 {}，{} phones/s", p.completed(), p.total(), p.broken(),
+                String.format("%.0f", p.phonesPerSecond()));
+    }
+
+    private String writeReport(List<BrokenAccount> brokenList) {
+        if (outputDir == null || outputDir.isBlank()) {
+            return null;
+        }
+        try {
+            Path dir = Files.createDirectories(Path.of(outputDir));
+            Path file = dir.resolve("account-verification-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            Files.write(file, jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(brokenList));
+            return file.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入账号校验结果失败", e);
+        }
+    }
+
+    private static double rate(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+}
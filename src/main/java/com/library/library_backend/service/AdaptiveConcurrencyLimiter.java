@@ -0,0 +1,184 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * /teacher 接口的自适应并发上限 (AIMD)：同时处理的请求数超过当前上限时直接拒绝 (503 + Retry-After)，不排队。
+ * 每个窗口 (默认 100ms) 根据 DbAccessGate 统计的查询耗时调整一次上限：
+ * 平均耗时超过阈值或出现闸门超时 → 上限乘以 backoff-ratio；数据库正常且上限被用满 → 上限加 1。
+ * MySQL 变慢时上限很快收缩，多出来的请求立即得到 503，而不是在闸门和连接池里排队到超时。
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final long windowNanos;
+    private final long retryAfterSeconds;
+    private final DbAccessGate dbAccessGate;
+    private final LongSupplier nanoClock;
+
+    private volatile int limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    // 当前窗口：开始时间、窗口内的最大并发，以及开始时闸门计数的快照
+    private final AtomicLong windowStart;
+    private final AtomicInteger windowPeakInflight = new AtomicInteger();
+    private volatile long lastCompleted;
+    private volatile long lastQueryNanos;
+    private volatile long lastTimeouts;
+    private volatile double lastAvgQueryMs;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(DbAccessGate dbAccessGate,
+                                      @Value("${app.adaptive-limit.enabled:true}") boolean enabled,
+                                      @Value("${app.adaptive-limit.initial-limit:50}") int initialLimit,
+                                      @Value("${app.adaptive-limit.min-limit:4}") int minLimit,
+                                      @Value("${app.adaptive-limit.max-limit:500}") int maxLimit,
+                                      @Value("${app.adaptive-limit.latency-threshold:150ms}") Duration latencyThreshold,
+                                      @Value("${app.adaptive-limit.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${app.adaptive-limit.window:100ms}") Duration window,
+                                      @Value("${app.adaptive-limit.retry-after:2s}") Duration retryAfter) {
+        this(dbAccessGate, enabled, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, window, retryAfter,
+                System::nanoTime);
+    }
+
+    // 测试可传入手动推进的时钟
+    public AdaptiveConcurrencyLimiter(DbAccessGate dbAccessGate, boolean enabled, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio, Duration window, Duration retryAfter,
+                                      LongSupplier nanoClock) {
+        this.dbAccessGate = dbAccessGate;
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = window.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.nanoClock = nanoClock;
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+        this.lastCompleted = dbAccessGate.completedCount();
+        this.lastQueryNanos = dbAccessGate.totalQueryNanos();
+        this.lastTimeouts = dbAccessGate.timeoutCount();
+        log.info("自适应并发上限: enabled={}, limit={} ({}~{}), 查询耗时阈值 {} ms", enabled, limit, this.minLimit, this.maxLimit,
+                latencyThreshold.toMillis());
+    }
+
+    // 拿到名额返回 true，处理完必须调用 release()；上限已满返回 false
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        maybeAdjust();
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                windowPeakInflight.accumulateAndGet(current + 1, Math::max);
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        if (enabled) {
+            inflight.decrementAndGet();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("limit", limit);
+        snapshot.put("minLimit", minLimit);
+        snapshot.put("maxLimit", maxLimit);
+        snapshot.put("inflight", inflight.get());
+        snapshot.put("accepted", accepted.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("decreases", decreases.sum());
+        snapshot.put("latencyThresholdMs", latencyThresholdNanos / 1_000_000.0);
+        snapshot.put("lastAvgQueryMs", lastAvgQueryMs);
+        return snapshot;
+    }
+
+    // 窗口到期时由抢到 CAS 的那个请求线程调整上限，不需要单独的定时线程
+    void maybeAdjust() {
+        long now = nanoClock.getAsLong();
+        long start = windowStart.get();
+        if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        long completed = dbAccessGate.completedCount();
+        long queryNanos = dbAccessGate.totalQueryNanos();
+        long timeouts = dbAccessGate.timeoutCount();
+        long samples = completed - lastCompleted;
+        long newTimeouts = timeouts - lastTimeouts;
+        long avgNanos = samples == 0 ? 0 : (queryNanos - lastQueryNanos) / samples;
+        boolean overloaded = newTimeouts > 0 || (samples > 0 && avgNanos > latencyThresholdNanos);
+        lastCompleted = completed;
+        lastQueryNanos = queryNanos;
+        lastTimeouts = timeouts;
+        if (samples > 0) {
+            lastAvgQueryMs = avgNanos / 1_000_000.0;
+        }
+        int peak = windowPeakInflight.getAndSet(inflight.get());
+
+        int current = limit;
+        if (overloaded) {
+            int next = Math.max(minLimit, (int) (current * backoffRatio));
+            if (next < current) {
+                limit = next;
+                decreases.increment();
+                log.warn("数据库变慢 (平均查询 {} ms, 闸门超时 {} 次)，并发上限 {} -> {}", String.format("%.1f", avgNanos / 1_000_000.0),
+                        newTimeouts, current, next);
+            }
+        } else if (peak >= current && current < maxLimit) {
+            limit = current + 1;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 回填 teacherBatch：按 id 分段扫描 user_teacher，用 BatchResolver 解析后批量更新。
+ * 新增期数后用 all=true 重算全部记录。
+ */
+@Service
+public class BatchBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchBackfillJob.class);
+
+    public record BackfillResult(long scanned, long updated, long elapsedMs) {
+    }
+
+    private record Row(long id, String sessions, Integer batch) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchResolver batchResolver;
+    private final TeacherLookupCache teacherLookupCache;
+
+    @Value("${app.batch.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.batch.backfill.on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // 同一时间只允许一个回填任务
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public BatchBackfillJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BatchResolver batchResolver,
+                            TeacherLookupCache teacherLookupCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchResolver = batchResolver;
+        this.teacherLookupCache = teacherLookupCache;
+    }
+
+    // 启动后在后台补齐 teacherBatch 为空的记录，不阻塞启动
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            run(false);
+        }
+    }
+
+    // all=false 只处理 teacherBatch 为空的记录；all=true 全表重算
+    public BackfillResult run(boolean all) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("期数回填任务正在运行中");
+        }
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long updated = 0;
+        try {
+            String sql = "SELECT id, teacherSessions, teacherBatch FROM user_teacher WHERE id > ?"
+                    + (all ? "" : " AND teacherBatch IS NULL")
+                    + " ORDER BY id LIMIT ?";
+            long lastId = 0;
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(sql,
+                        (rs, i) -> new Row(rs.getLong(1), rs.getString(2), (Integer) rs.getObject(3, Integer.class)),
+                        lastId, chunkSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Object[]> changes = new ArrayList<>();
+                for (Row row : rows) {
+                    int batch = batchResolver.resolve(row.sessions());
+                    if (row.batch() == null || row.batch() != batch) {
+                        changes.add(new Object[]{batch, row.id()});
+                    }
+                }
+                if (!changes.isEmpty()) {
+                    // 放进写事务：读写分离据此开始写后读主库窗口，避免紧接着从延迟的副本读到旧值
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate("UPDATE user_teacher SET teacherBatch = ? WHERE id = ?", changes));
+                }
+                scanned += rows.size();
+                updated += changes.size();
+                lastId = rows.get(rows.size() - 1).id();
+            }
+        } finally {
+            running.set(false);
+        }
+        if (updated > 0) {
+            teacherLookupCache.invalidateAll();
+        }
+        BackfillResult result = new BackfillResult(scanned, updated, System.currentTimeMillis() - start);
+        log.info("期数回填完成: {}", result);
+        return result;
+    }
+}
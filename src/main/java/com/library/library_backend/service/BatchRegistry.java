@@ -0,0 +1,86 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.entity.BatchDefinition;
+import com.library.library_backend.repository.BatchDefinitionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 已知期数的内存快照，数据来自 teacher_batch 表。
+ * 实体监听器在 flush 时会用到它，所以这里不能临时查库，只能读内存。
+ */
+@Service
+public class BatchRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchRegistry.class);
+
+    // 表为空时写入的初始数据，与原来控制器里写死的 7/8/9 期一致
+    private static final List<BatchRule> DEFAULT_RULES = List.of(
+            new BatchRule(9, List.of("9", "九")),
+            new BatchRule(8, List.of("8", "八")),
+            new BatchRule(7, List.of("7", "七")));
+
+    // 一条期数规则：teacherSessions 包含任意一个别名即视为该期
+    public record BatchRule(int batchNo, List<String> aliases) {
+    }
+
+    private final BatchDefinitionRepository batchDefinitionRepository;
+
+    // 按期数从大到小排序，保证 "9" 优先于 "7" 匹配 (与原逻辑一致)
+    private volatile List<BatchRule> rules = DEFAULT_RULES;
+
+    public BatchRegistry(BatchDefinitionRepository batchDefinitionRepository) {
+        this.batchDefinitionRepository = batchDefinitionRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (batchDefinitionRepository.count() == 0) {
+            List<BatchDefinition> seed = new ArrayList<>();
+            for (BatchRule rule : DEFAULT_RULES) {
+                BatchDefinition def = new BatchDefinition();
+                def.setBatchNo(rule.batchNo());
+                def.setAliases(String.join(",", rule.aliases()));
+                def.setDescription("第" + rule.batchNo() + "期");
+                seed.add(def);
+            }
+            batchDefinitionRepository.saveAll(seed);
+            log.info("teacher_batch 为空，已写入默认期数 7/8/9");
+        }
+        reload();
+    }
+
+    // 修改 teacher_batch 表后调用，立即生效
+    public List<BatchRule> reload() {
+        List<BatchRule> loaded = new ArrayList<>();
+        for (BatchDefinition def : batchDefinitionRepository.findAll()) {
+            if (def.getBatchNo() == null) {
+                continue;
+            }
+            List<String> aliases = new ArrayList<>();
+            aliases.add(String.valueOf(def.getBatchNo()));
+            if (def.getAliases() != null) {
+                Arrays.stream(def.getAliases().split("[,，]"))
+                        .map(String::trim)
+                        .filter(a -> !a.isEmpty() && !aliases.contains(a))
+                        .forEach(aliases::add);
+            }
+            loaded.add(new BatchRule(def.getBatchNo(), List.copyOf(aliases)));
+        }
+        loaded.sort(Comparator.comparingInt(BatchRule::batchNo).reversed());
+        rules = List.copyOf(loaded);
+        log.info("已加载期数规则: {}", rules);
+        return rules;
+    }
+
+    public List<BatchRule> rules() {
+        return rules;
+    }
+}
@@ -0,0 +1,37 @@
+package com.library.library_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 把自由文本的 teacherSessions 解析成期数。
+ * 只在写入/导入/回填时调用，登录直接读 Teacher.batch。
+ */
+@Service
+public class BatchResolver {
+
+    private final BatchRegistry batchRegistry;
+
+    // 匹配不到任何期数时的兜底 (原逻辑默认是 7)
+    private final int defaultBatch;
+
+    public BatchResolver(BatchRegistry batchRegistry,
+                         @Value("${app.batch.default:7}") int defaultBatch) {
+        this.batchRegistry = batchRegistry;
+        this.defaultBatch = defaultBatch;
+    }
+
+    public int resolve(String sessions) {
+        if (sessions == null || sessions.isEmpty()) {
+            return defaultBatch;
+        }
+        for (BatchRegistry.BatchRule rule : batchRegistry.rules()) {
+            for (String alias : rule.aliases()) {
+                if (sessions.contains(alias)) {
+                    return rule.batchNo();
+                }
+            }
+        }
+        return defaultBatch;
+    }
+}
@@ -0,0 +1,97 @@
+package com.library.library_backend.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 字符串 Bloom 过滤器：位数组放在 AtomicLongArray 里 (每个 long 64 位)，线程安全、只增不删。
+ * 两个 64 位哈希做双重哈希得到 k 个位置；判定 "不存在" 一定准确，判定 "可能存在" 有 fpp 的误判率。
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final double targetFpp;
+
+    public BloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        // m = -n·ln(p) / (ln2)^2，k = m/n·ln2
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        long wordCount = Math.max(1, (m + 63) >>> 6);
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom 过滤器过大: " + m + " bits");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bitCount = wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.expectedInsertions = n;
+        this.targetFpp = fpp;
+    }
+
+    public void put(String key) {
+        long h1 = hash(key, 0);
+        long h2 = hash(key, 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long old = words.get(index);
+            while ((old & mask) == 0 && !words.compareAndSet(index, old, old | mask)) {
+                old = words.get(index);
+            }
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key, 0);
+        long h2 = hash(key, 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double targetFpp() {
+        return targetFpp;
+    }
+
+    // 按当前置位比例估算的实际误判率 (插入数超过预期时会明显升高)
+    public double estimatedFpp() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashCount);
+    }
+
+    // FNV-1a 之后用 murmur3 的 fmix64 打散 (证书文件清单也用它把 key 压成 long)
+    static long hash(String key, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,266 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * OSS 上已存在的证书文件清单：登录响应里的 imgUrl/pdfUrl 是按规则拼出来的，文件可能从未上传。
+ * 启动后从存储清单加载全部 object key (本地目录镜像，或 ossutil ls 导出的清单文件)，
+ * 每个 key 压成 64 位哈希放进 LongHashSet，登录时按 key 判断是否存在，纯内存 O(1)，不发网络请求。
+ * 定时增量刷新 (清单文件只读新追加的行，目录重新遍历后只并入清单里还没有的 key)，定时全量重载以反映删除。
+ * 未配置或尚未加载完成时一律视为存在，与原来的行为一致。
+ */
+@Service
+public class CertificateAssetManifest {
+
+    private static final Logger log = LoggerFactory.getLogger(CertificateAssetManifest.class);
+
+    // ossutil ls 的输出行形如 "2024-05-01 10:00:00 +0800 CST  12345  Standard  ETAG  oss://bucket/preview/9_xxx_img.png"
+    private static final Pattern OSS_PREFIX = Pattern.compile("^.*?oss://[^/]+/");
+
+    private final Path listingFile;
+    private final Path directory;
+
+    private volatile LongHashSet keys;
+    // 清单内容每变化一次加一，缓存了 imgAvailable/pdfAvailable 的地方据此判断是否过期
+    private volatile long version;
+    private volatile LocalDateTime lastLoadedAt;
+    private volatile LocalDateTime lastRefreshedAt;
+    private volatile long lastLoadMs;
+    // 增量刷新的位置：清单文件已读到的字节数
+    private long listingOffset;
+
+    private final LongAdder missingImg = new LongAdder();
+    private final LongAdder missingPdf = new LongAdder();
+
+    public CertificateAssetManifest(@Value("${app.assets.manifest.listing-file:}") String listingFile,
+                                    @Value("${app.assets.manifest.directory:}") String directory) {
+        this.listingFile = listingFile == null || listingFile.isBlank() ? null : Path.of(listingFile);
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    }
+
+    public boolean isEnabled() {
+        return listingFile != null || directory != null;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (isEnabled()) {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.assets.manifest.refresh-interval:60000}",
+            initialDelayString = "${app.assets.manifest.refresh-interval:60000}")
+    public void scheduledRefresh() {
+        if (isEnabled() && keys != null) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.assets.manifest.reload-interval:21600000}",
+            initialDelayString = "${app.assets.manifest.reload-interval:21600000}")
+    public void scheduledReload() {
+        if (isEnabled()) {
+            reload();
+        }
+    }
+
+    // 全量重载后整体替换
+    public synchronized Map<String, Object> reload() {
+        long start = System.nanoTime();
+        KeyBuffer buffer = new KeyBuffer();
+        try {
+            if (listingFile != null) {
+                listingOffset = readListing(0, buffer);
+            } else {
+                scanDirectory(buffer);
+            }
+        } catch (IOException e) {
+            log.warn("证书文件清单加载失败，保留旧清单: {}", e.getMessage());
+            return statsSnapshot();
+        }
+        LongHashSet next = new LongHashSet(buffer.size);
+        for (int i = 0; i < buffer.size; i++) {
+            next.add(buffer.values[i]);
+        }
+        keys = next;
+        version++;
+        lastLoadedAt = LocalDateTime.now();
+        lastRefreshedAt = lastLoadedAt;
+        lastLoadMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("证书文件清单已加载: {} 个文件, {} KB, 耗时 {} ms", next.size(), next.memoryBytes() / 1024, lastLoadMs);
+        return statsSnapshot();
+    }
+
+    // 增量刷新：只并入新出现的 key；清单文件被截短 (重新导出) 时改为全量重载
+    public synchronized Map<String, Object> refresh() {
+        LongHashSet current = keys;
+        if (current == null) {
+            return reload();
+        }
+        KeyBuffer buffer = new KeyBuffer();
+        try {
+            if (listingFile != null) {
+                if (Files.size(listingFile) < listingOffset) {
+                    return reload();
+                }
+                listingOffset = readListing(listingOffset, buffer);
+            } else {
+                // 不按修改时间过滤：cp -p / rsync -t 拷进来的文件保留旧 mtime，已有的 key 由下面的 contains 跳过
+                scanDirectory(buffer);
+            }
+        } catch (IOException e) {
+            log.warn("证书文件清单增量刷新失败: {}", e.getMessage());
+            return statsSnapshot();
+        }
+        int added = 0;
+        for (int i = 0; i < buffer.size; i++) {
+            if (!current.contains(buffer.values[i])) {
+                buffer.values[added++] = buffer.values[i];
+            }
+        }
+        if (added > 0) {
+            keys = current.with(buffer.values, added);
+            version++;
+            log.info("证书文件清单增量刷新: 新增 {} 个文件", added);
+        }
+        lastRefreshedAt = LocalDateTime.now();
+        return statsSnapshot();
+    }
+
+    // 未启用或尚未加载完成时返回 true
+    public boolean contains(String key) {
+        LongHashSet set = keys;
+        return set == null || set.contains(BloomFilter.hash(key, 0));
+    }
+
+    // 登录响应用：同时统计缺失次数
+    public boolean imgAvailable(String key) {
+        boolean present = contains(key);
+        if (!present) {
+            missingImg.increment();
+        }
+        return present;
+    }
+
+    public boolean pdfAvailable(String key) {
+        boolean present = contains(key);
+        if (!present) {
+            missingPdf.increment();
+        }
+        return present;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        LongHashSet set = keys;
+        return set == null ? 0 : set.size();
+    }
+
+    public long missingCount() {
+        return missingImg.sum() + missingPdf.sum();
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        LongHashSet set = keys;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", isEnabled());
+        snapshot.put("source", listingFile != null ? listingFile.toString() : directory);
+        snapshot.put("ready", set != null);
+        snapshot.put("keys", set == null ? 0 : set.size());
+        snapshot.put("memoryKb", set == null ? 0 : set.memoryBytes() / 1024);
+        snapshot.put("missingImg", missingImg.sum());
+        snapshot.put("missingPdf", missingPdf.sum());
+        snapshot.put("lastLoadedAt", lastLoadedAt);
+        snapshot.put("lastRefreshedAt", lastRefreshedAt);
+        snapshot.put("lastLoadMs", lastLoadMs);
+        return snapshot;
+    }
+
+    // 从 offset 开始读到文件末尾的完整行，返回新的 offset (末尾没有换行的半行留到下次)
+    private long readListing(long offset, KeyBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(listingFile, StandardOpenOption.READ)) {
+            channel.position(offset);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            long position = offset;
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n') {
+                    String raw = line.toString();
+                    position += raw.getBytes(StandardCharsets.UTF_8).length + 1;
+                    String key = toKey(raw);
+                    if (key != null) {
+                        buffer.add(BloomFilter.hash(key, 0));
+                    }
+                    line.setLength(0);
+                } else {
+                    line.append((char) c);
+                }
+            }
+            return position;
+        }
+    }
+
+    private void scanDirectory(KeyBuffer buffer) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String key = directory.relativize(file).toString().replace('\\', '/');
+                buffer.add(BloomFilter.hash(key, 0));
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // 清单行 -> object key：去掉 oss://bucket/ 前缀，跳过空行和目录
+    static String toKey(String line) {
+        String key = OSS_PREFIX.matcher(line.strip()).replaceFirst("");
+        if (key.isEmpty() || key.endsWith("/") || key.contains(" ")) {
+            return null;
+        }
+        return key;
+    }
+
+    // 加载过程中暂存哈希的可增长 long 数组
+    private static class KeyBuffer {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.library.library_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.library.library_backend.repository.TeacherLoginView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /teacher/me 的响应缓存：按手机号缓存已序列化的证书列表 (JSON 字节) 和它的 ETag。
+ * 每条记录的 JSON 来自 LoginResponseFragments (与登录响应共用)，片段重新编码 (实体变更、导入后失效、过期重载、
+ * 证书文件清单变化) 时才重新拼接；内容没变时 ETag 也不变，前端带 If-None-Match 直接得到 304。
+ */
+@Service
+public class CertificateListCache {
+
+    public record View(byte[] body, String etag) {
+    }
+
+    private static final byte[] HEAD = "{\"code\":200,\"msg\":\"查询成功\",\"userList\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TAIL = "]}".getBytes(StandardCharsets.UTF_8);
+
+    // fragments 用引用比较：片段重新编码后就是新的对象
+    private record Entry(LoginResponseFragments.Fragments fragments, View view) {
+    }
+
+    private final TeacherLookupCache teacherLookupCache;
+    private final LoginResponseFragments loginResponseFragments;
+    private final Cache<String, Entry> cache;
+
+    public CertificateListCache(TeacherLookupCache teacherLookupCache, LoginResponseFragments loginResponseFragments,
+                                @Value("${app.cache.me.max-size:20000}") long maxSize,
+                                @Value("${app.cache.me.ttl:10m}") Duration ttl) {
+        this.teacherLookupCache = teacherLookupCache;
+        this.loginResponseFragments = loginResponseFragments;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // 手机号下没有记录时返回 null
+    public View view(String phone) {
+        List<TeacherLoginView> teachers = teacherLookupCache.findAllByPhone(phone);
+        if (teachers.isEmpty()) {
+            cache.invalidate(phone);
+            return null;
+        }
+        LoginResponseFragments.Fragments fragments = loginResponseFragments.forPhone(phone, teachers);
+        Entry entry = cache.getIfPresent(phone);
+        if (entry != null && entry.fragments() == fragments) {
+            return entry.view();
+        }
+        byte[] body = new LoginResponseFragments.SplicedJson(HEAD, fragments.items(), TAIL).toByteArray();
+        View view = new View(body, etagOf(body));
+        cache.put(phone, new Entry(fragments, view));
+        return view;
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        CacheStats s = cache.stats();
+        snapshot.put("size", cache.estimatedSize());
+        snapshot.put("hitCount", s.hitCount());
+        snapshot.put("missCount", s.missCount());
+        return snapshot;
+    }
+
+    // 给 Micrometer 绑定缓存指标用
+    Cache<String, ?> nativeCache() {
+        return cache;
+    }
+
+    // 强 ETag：响应体 SHA-256 的前 12 字节
+    static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.entity.HealthCheckReport;
+import com.library.library_backend.repository.HealthCheckReportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * user_teacher 数据健康检查 (原 DataHealthCheckTest 的线上版本)。
+ * 按 id 分段流式扫描，重复检测走分区落盘，内存占用与表大小无关；结果写入 health_check_report。
+ */
+@Service
+public class DataHealthCheckService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataHealthCheckService.class);
+
+    private static final String SCAN_SQL = "SELECT id, teacherReal, teacherTel, teacherIDCa, teacherIDNu "
+            + "FROM user_teacher WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HealthCheckReportRepository reportRepository;
+    private final AsyncTaskExecutor taskExecutor;
+
+    // 每段行数，同时作为 JDBC fetch size
+    private final int chunkSize;
+
+    @Value("${app.health-check.spill-partitions:64}")
+    private int spillPartitions;
+
+    @Value("${app.health-check.max-findings:500}")
+    private int maxFindings;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private record Row(long id, String name, String phone, String idCard, String password) {
+    }
+
+    public DataHealthCheckService(DataSource dataSource, HealthCheckReportRepository reportRepository,
+                                  @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                  @Value("${app.health-check.chunk-size:2000}") int chunkSize) {
+        // 独立的 JdbcTemplate，固定 fetch size，不影响其他查询
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(chunkSize);
+        this.chunkSize = chunkSize;
+        this.reportRepository = reportRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    // 定时检查，cron 默认 "-" 表示关闭
+    @Scheduled(cron = "${app.health-check.cron:-}")
+    public void scheduledRun() {
+        if (running.get()) {
+            log.warn("上一次健康检查仍在运行，跳过本次定时任务");
+            return;
+        }
+        start();
+    }
+
+    // 后台启动一次检查，立即返回 RUNNING 状态的报告
+    public HealthCheckReport start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("健康检查正在运行中");
+        }
+        HealthCheckReport report = new HealthCheckReport();
+        report.setStatus("RUNNING");
+        report.setStartedAt(LocalDateTime.now());
+        try {
+            report = reportRepository.save(report);
+            HealthCheckReport submitted = report;
+            taskExecutor.execute(() -> {
+                try {
+                    execute(submitted);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return report;
+    }
+
+    // 同步执行一次检查 (诊断测试用)
+    public HealthCheckReport runNow() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("健康检查正在运行中");
+        }
+        try {
+            HealthCheckReport report = new HealthCheckReport();
+            report.setStatus("RUNNING");
+            report.setStartedAt(LocalDateTime.now());
+            return execute(reportRepository.save(report));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private HealthCheckReport execute(HealthCheckReport report) {
+        List<String> findings = new ArrayList<>();
+        long[] findingCount = {0};
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+
+        try (DuplicateSpillDetector phones = new DuplicateSpillDetector(tmp, "hc-phone", spillPartitions);
+             DuplicateSpillDetector idCards = new DuplicateSpillDetector(tmp, "hc-idcard", spillPartitions)) {
+
+            // --- 第一阶段：逐行检查，重复检测的数据落盘 ---
+            long lastId = 0;
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(SCAN_SQL,
+                        (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)),
+                        lastId, chunkSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Row row : rows) {
+                    checkRow(row, report, phones, idCards, findings, findingCount);
+                }
+                report.setTotalRows(report.getTotalRows() + rows.size());
+                lastId = rows.get(rows.size() - 1).id();
+            }
+
+            // --- 第二阶段：逐个分区找重复 ---
+            report.setDuplicatePhoneGroups(phones.forEachDuplicate((phone, ids) ->
+                    addFinding(findings, findingCount, "[DUPLICATE ERROR] Phone " + phone + " is used by IDs: " + ids)));
+            report.setDuplicateIdCardGroups(idCards.forEachDuplicate((idCard, ids) ->
+                    addFinding(findings, findingCount, "[DUPLICATE WARN] ID Card " + idCard + " is used by IDs: " + ids)));
+
+            if (findingCount[0] > findings.size()) {
+                findings.add("... 共 " + findingCount[0] + " 条明细，仅保留前 " + maxFindings + " 条");
+            }
+            report.setStatus("SUCCESS");
+        } catch (RuntimeException e) {
+            log.error("健康检查失败", e);
+            report.setStatus("FAILED");
+            // error_message 是 VARCHAR(255)，超长会让下面的 save 失败、报告一直停在 RUNNING
+            String message = String.valueOf(e.getMessage());
+            report.setErrorMessage(message.length() > 255 ? message.substring(0, 255) : message);
+        }
+
+        report.setFindings(String.join("\n", findings));
+        report.setFinishedAt(LocalDateTime.now());
+        report = reportRepository.save(report);
+        log.info("健康检查结束: id={}, status={}, rows={}, dupPhone={}, dupIdCard={}",
+                report.getId(), report.getStatus(), report.getTotalRows(),
+                report.getDuplicatePhoneGroups(), report.getDuplicateIdCardGroups());
+        return report;
+    }
+
+    private void checkRow(Row row, HealthCheckReport report, DuplicateSpillDetector phones,
+                          DuplicateSpillDetector idCards, List<String> findings, long[] findingCount) {
+        String ref = "ID " + row.id() + " (" + (row.name() == null ? "Unknown_Name" : row.name()) + ")";
+
+        if (row.phone() == null && row.name() == null) {
+            report.setGhostRows(report.getGhostRows() + 1);
+            addFinding(findings, findingCount, "[CRITICAL] " + ref + ": teacherTel and teacherReal are both NULL (ghost row)");
+        }
+
+        if (isBlank(row.phone())) {
+            report.setMissingPhone(report.getMissingPhone() + 1);
+            addFinding(findings, findingCount, "[ERROR] " + ref + ": Field 'teacherTel' (Phone) is NULL or Empty");
+        } else {
+            phones.add(row.phone().trim(), row.id());
+        }
+
+        if (isBlank(row.password())) {
+            report.setMissingPassword(report.getMissingPassword() + 1);
+            addFinding(findings, findingCount, "[ERROR] " + ref + ": Field 'teacherIDNu' (Password) is NULL or Empty");
+        }
+
+        if (isBlank(row.idCard())) {
+            report.setMissingIdCard(report.getMissingIdCard() + 1);
+            addFinding(findings, findingCount, "[WARN] " + ref + ": Field 'teacherIDCa' (ID Card) is NULL or Empty");
+        } else {
+            idCards.add(row.idCard().trim(), row.id());
+        }
+    }
+
+    // 明细只保留前 maxFindings 条，计数照常累加
+    private void addFinding(List<String> findings, long[] findingCount, String line) {
+        findingCount[0]++;
+        if (findings.size() < maxFindings) {
+            findings.add(line);
+        }
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
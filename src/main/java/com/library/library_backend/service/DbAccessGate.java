@@ -0,0 +1,127 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 数据库访问闸门：许可数与 Hikari 连接池大小一致。
+ * 虚拟线程模式下成千上万个请求可以同时到达，先在这里排队 (几乎没有开销)，
+ * 拿到许可的才去借连接，避免把连接池等待队列打满、请求集体超时。
+ */
+@Service
+public class DbAccessGate {
+
+    private static final Logger log = LoggerFactory.getLogger(DbAccessGate.class);
+
+    private final boolean enabled;
+    private final int permits;
+    private final Duration timeout;
+    private final Semaphore semaphore;
+
+    // 指标：通过次数、超时次数、累计/最大等待时间、当前排队数、查询完成次数和累计耗时 (自适应限流据此判断数据库是否变慢)
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalQueryNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong waiting = new AtomicLong();
+
+    public DbAccessGate(@Value("${app.db-gate.enabled:true}") boolean enabled,
+                        @Value("${app.db-gate.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                        @Value("${app.db-gate.timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.permits = permits;
+        this.timeout = timeout;
+        this.semaphore = new Semaphore(permits, true);
+        log.info("数据库访问闸门: enabled={}, permits={}, timeout={}", enabled, permits, timeout);
+    }
+
+    public <T> T call(Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean ok;
+        try {
+            ok = semaphore.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DbGateTimeoutException("等待数据库被中断");
+        } finally {
+            waiting.decrementAndGet();
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (!ok) {
+            timeouts.increment();
+            throw new DbGateTimeoutException("系统繁忙，请稍后再试");
+        }
+        acquired.increment();
+        long queryStart = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            semaphore.release();
+            totalQueryNanos.add(System.nanoTime() - queryStart);
+            completed.increment();
+        }
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        long count = acquired.sum() + timeouts.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("permits", permits);
+        snapshot.put("available", semaphore.availablePermits());
+        snapshot.put("waiting", waiting.get());
+        snapshot.put("acquired", acquired.sum());
+        snapshot.put("timeouts", timeouts.sum());
+        snapshot.put("avgWaitMs", count == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / count);
+        snapshot.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        long done = completed.sum();
+        snapshot.put("avgQueryMs", done == 0 ? 0.0 : totalQueryNanos.sum() / 1_000_000.0 / done);
+        return snapshot;
+    }
+
+    public long totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public long timeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long waitingCount() {
+        return waiting.get();
+    }
+
+    public long acquiredCount() {
+        return acquired.sum();
+    }
+
+    public long completedCount() {
+        return completed.sum();
+    }
+
+    public long totalQueryNanos() {
+        return totalQueryNanos.sum();
+    }
+
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+}
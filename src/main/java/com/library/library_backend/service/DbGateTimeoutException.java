@@ -0,0 +1,13 @@
+package com.library.library_backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 在闸门处等待超时：数据库已满负荷，直接返回 503 让前端稍后重试
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DbGateTimeoutException extends RuntimeException {
+
+    public DbGateTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,94 @@
+package com.library.library_backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把已有组件的内部计数 (登录缓存、登录响应片段、证书列表缓存、数据库闸门、登录事件日志、手机号 Bloom 过滤器、证书文件清单、自适应并发上限、维护模式) 注册成 Micrometer 指标，
+ * 与 /admin 下各 stats 接口是同一份数据。
+ */
+@Component
+public class DiagnosticsMeterBinder implements MeterBinder {
+
+    private final TeacherLookupCache teacherLookupCache;
+    private final DbAccessGate dbAccessGate;
+    private final LoginEventLogger loginEventLogger;
+    private final PhoneBloomFilter phoneBloomFilter;
+    private final CertificateAssetManifest certificateAssetManifest;
+    private final PasswordVerifier passwordVerifier;
+    private final CertificateListCache certificateListCache;
+    private final LoginResponseFragments loginResponseFragments;
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+    private final MaintenanceState maintenanceState;
+
+    public DiagnosticsMeterBinder(TeacherLookupCache teacherLookupCache, DbAccessGate dbAccessGate,
+                                  LoginEventLogger loginEventLogger, PhoneBloomFilter phoneBloomFilter,
+                                  CertificateAssetManifest certificateAssetManifest, PasswordVerifier passwordVerifier,
+                                  CertificateListCache certificateListCache, LoginResponseFragments loginResponseFragments,
+                                  AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter, MaintenanceState maintenanceState) {
+        this.teacherLookupCache = teacherLookupCache;
+        this.dbAccessGate = dbAccessGate;
+        this.loginEventLogger = loginEventLogger;
+        this.phoneBloomFilter = phoneBloomFilter;
+        this.certificateAssetManifest = certificateAssetManifest;
+        this.passwordVerifier = passwordVerifier;
+        this.certificateListCache = certificateListCache;
+        this.loginResponseFragments = loginResponseFragments;
+        this.adaptiveConcurrencyLimiter = adaptiveConcurrencyLimiter;
+        this.maintenanceState = maintenanceState;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, teacherLookupCache.nativeCache(), "teacherLogin");
+        CaffeineCacheMetrics.monitor(registry, certificateListCache.nativeCache(), "teacherMe");
+        CaffeineCacheMetrics.monitor(registry, loginResponseFragments.nativeCache(), "loginFragments");
+
+        Gauge.builder("db.gate.waiting", dbAccessGate, DbAccessGate::waitingCount)
+                .description("排队等待数据库许可的请求数").register(registry);
+        Gauge.builder("db.gate.available", dbAccessGate, DbAccessGate::availablePermits)
+                .description("剩余许可数").register(registry);
+        FunctionCounter.builder("db.gate.acquired", dbAccessGate, DbAccessGate::acquiredCount).register(registry);
+        FunctionCounter.builder("db.gate.timeouts", dbAccessGate, DbAccessGate::timeoutCount).register(registry);
+        FunctionCounter.builder("db.gate.wait", dbAccessGate, g -> g.totalWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .baseUnit("seconds").description("累计等待时间").register(registry);
+
+        FunctionCounter.builder("login.events.dropped", loginEventLogger, LoginEventLogger::droppedCount)
+                .description("缓冲区满被丢弃的登录事件").register(registry);
+        Gauge.builder("login.events.buffered", loginEventLogger, LoginEventLogger::bufferedCount).register(registry);
+
+        FunctionCounter.builder("teacher.bloom.saved.queries", phoneBloomFilter, PhoneBloomFilter::savedQueries)
+                .description("被 Bloom 过滤器直接拒绝、省下的查询次数").register(registry);
+        FunctionCounter.builder("teacher.bloom.false.positives", phoneBloomFilter, PhoneBloomFilter::falsePositiveCount)
+                .description("过滤器放行但库里查不到的次数").register(registry);
+
+        Gauge.builder("certificate.assets.keys", certificateAssetManifest, CertificateAssetManifest::size)
+                .description("清单中已上传的证书文件数").register(registry);
+        FunctionCounter.builder("certificate.assets.missing", certificateAssetManifest, CertificateAssetManifest::missingCount)
+                .description("登录响应中标记为未上传的证书文件次数").register(registry);
+
+        FunctionCounter.builder("teacher.password.hash.checks", passwordVerifier, PasswordVerifier::hashCheckCount)
+                .description("PBKDF2 校验次数").register(registry);
+        FunctionCounter.builder("teacher.password.cache.hits", passwordVerifier, PasswordVerifier::cacheHitCount)
+                .description("命中最近成功缓存、省下的哈希校验次数").register(registry);
+        FunctionCounter.builder("teacher.password.rejected", passwordVerifier, PasswordVerifier::rejectedCount)
+                .description("校验线程池已满或排队超时返回 503 的次数").register(registry);
+        Gauge.builder("teacher.password.queued", passwordVerifier, PasswordVerifier::queuedCount)
+                .description("排队等待密码校验的请求数").register(registry);
+
+        Gauge.builder("teacher.limiter.limit", adaptiveConcurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+                .description("/teacher 当前并发上限").register(registry);
+        Gauge.builder("teacher.limiter.inflight", adaptiveConcurrencyLimiter, AdaptiveConcurrencyLimiter::inflight)
+                .description("/teacher 正在处理的请求数").register(registry);
+        FunctionCounter.builder("teacher.limiter.rejected", adaptiveConcurrencyLimiter, AdaptiveConcurrencyLimiter::rejectedCount)
+                .description("超过并发上限直接返回 503 的次数").register(registry);
+        Gauge.builder("app.maintenance.enabled", maintenanceState, m -> m.isEnabled() ? 1 : 0)
+                .description("维护模式 (1 开启 / 0 关闭)").register(registry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.library.library_backend.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 按哈希分区落盘的重复值检测：扫描时把 (key, id) 追加到 key 哈希对应的分区文件，
+ * 扫描结束后逐个分区读回内存找重复。内存占用只与单个分区大小有关，与总行数无关。
+ * 非线程安全，一次检测用一个实例。
+ */
+public class DuplicateSpillDetector implements Closeable {
+
+    private final Path dir;
+    private final BufferedWriter[] partitions;
+
+    public DuplicateSpillDetector(Path parentDir, String name, int partitionCount) {
+        try {
+            this.dir = Files.createTempDirectory(parentDir, name + "-");
+            this.partitions = new BufferedWriter[partitionCount];
+            for (int i = 0; i < partitionCount; i++) {
+                partitions[i] = Files.newBufferedWriter(dir.resolve("part-" + i), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法创建重复检测临时目录", e);
+        }
+    }
+
+    public void add(String key, long id) {
+        // key 已经 trim 过；去掉制表符和换行，保证一行一条
+        String safeKey = key.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        int p = Math.floorMod(safeKey.hashCode(), partitions.length);
+        try {
+            BufferedWriter w = partitions[p];
+            w.write(safeKey);
+            w.write('\t');
+            w.write(Long.toString(id));
+            w.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 逐个分区找出出现多次的 key，回调 (key, ids)，返回重复组数。
+     */
+    public long forEachDuplicate(BiConsumer<String, List<Long>> consumer) {
+        long groups = 0;
+        try {
+            for (BufferedWriter w : partitions) {
+                w.close();
+            }
+            for (int i = 0; i < partitions.length; i++) {
+                Map<String, List<Long>> seen = new HashMap<>();
+                try (BufferedReader reader = Files.newBufferedReader(dir.resolve("part-" + i), StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int tab = line.lastIndexOf('\t');
+                        seen.computeIfAbsent(line.substring(0, tab), k -> new ArrayList<>(1))
+                                .add(Long.parseLong(line.substring(tab + 1)));
+                    }
+                }
+                for (Map.Entry<String, List<Long>> entry : seen.entrySet()) {
+                    if (entry.getValue().size() > 1) {
+                        groups++;
+                        consumer.accept(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return groups;
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < partitions.length; i++) {
+            try {
+                partitions[i].close();
+                Files.deleteIfExists(dir.resolve("part-" + i));
+            } catch (IOException ignored) {
+                // 临时文件删除失败不影响结果
+            }
+        }
+        try {
+            Files.deleteIfExists(dir);
+        } catch (IOException ignored) {
+        }
+    }
+}
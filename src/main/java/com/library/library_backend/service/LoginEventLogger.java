@@ -0,0 +1,164 @@
+package com.library.library_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录链路的结构化事件日志：请求线程只做采样判断和一次非阻塞入队，
+ * 由后台线程批量取出、序列化成 JSON 写到 "login-events" 日志。
+ * 缓冲区满时直接丢弃并计数，绝不让请求线程等待日志 I/O。
+ */
+@Service
+public class LoginEventLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginEventLogger.class);
+    private static final Logger eventLog = LoggerFactory.getLogger("login-events");
+
+    // 事件类型
+    public static final String LOGIN_SUCCESS = "LOGIN_SUCCESS";
+    public static final String LOGIN_FAILED = "LOGIN_FAILED";
+    public static final String LOGIN_REJECTED = "LOGIN_REJECTED";
+    public static final String FIND_ACCOUNT = "FIND_ACCOUNT";
+    public static final String SQL = "SQL";
+
+    // ts 毫秒时间戳；phone 已脱敏；detail 为失败原因或 SQL 文本
+    public record LoginEvent(long ts, String type, String phone, int records, double elapsedMs, String detail) {
+    }
+
+    private final ArrayBlockingQueue<LoginEvent> buffer;
+    private final JsonMapper jsonMapper;
+    private final Map<String, Double> sampleRates = new ConcurrentHashMap<>();
+    private final double defaultSampleRate;
+    private final Thread writer;
+    private volatile boolean stopped;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    public LoginEventLogger(JsonMapper jsonMapper,
+                            @Value("${app.login-log.buffer-size:8192}") int bufferSize,
+                            @Value("${app.login-log.default-sample-rate:1.0}") double defaultSampleRate,
+                            @Value("${app.login-log.sample-rates:}") String sampleRates) {
+        this.jsonMapper = jsonMapper;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.defaultSampleRate = defaultSampleRate;
+        // 格式 "LOGIN_SUCCESS=0.01,SQL=0.001"
+        for (String pair : sampleRates.split(",")) {
+            String[] kv = pair.split("=");
+            if (kv.length == 2) {
+                setSampleRate(kv[0].trim(), Double.parseDouble(kv[1].trim()));
+            }
+        }
+        this.writer = new Thread(this::drain, "login-event-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // 手机号只保留前三后四
+    public static String mask(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String p = phone.trim();
+        return p.length() < 7 ? "***" : p.substring(0, 3) + "****" + p.substring(p.length() - 4);
+    }
+
+    public void log(String type, String phone, int records, long startNanos, String detail) {
+        if (!sampled(type)) {
+            return;
+        }
+        publish(new LoginEvent(System.currentTimeMillis(), type, mask(phone), records,
+                (System.nanoTime() - startNanos) / 1_000_000.0, detail));
+    }
+
+    // 采样判断单独暴露，调用方可以在拼装 detail 之前先判断，未采中的事件零分配
+    public boolean sampled(String type) {
+        double rate = sampleRates.getOrDefault(type, defaultSampleRate);
+        if (rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+            return true;
+        }
+        sampledOut.increment();
+        return false;
+    }
+
+    // 非阻塞入队，满了就丢
+    public void publish(LoginEvent event) {
+        if (buffer.offer(event)) {
+            published.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public void setSampleRate(String type, double rate) {
+        sampleRates.put(type, Math.max(0, Math.min(1, rate)));
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long bufferedCount() {
+        return buffer.size();
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("published", published.sum());
+        snapshot.put("written", written.sum());
+        snapshot.put("sampledOut", sampledOut.sum());
+        snapshot.put("dropped", dropped.sum());
+        snapshot.put("buffered", buffer.size());
+        snapshot.put("capacity", buffer.size() + buffer.remainingCapacity());
+        snapshot.put("defaultSampleRate", defaultSampleRate);
+        snapshot.put("sampleRates", Map.copyOf(sampleRates));
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopped = true;
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    // 后台写线程：批量取出后逐条写日志，停止时把剩余事件写完
+    private void drain() {
+        List<LoginEvent> batch = new ArrayList<>(256);
+        while (!stopped || !buffer.isEmpty()) {
+            try {
+                LoginEvent first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, 255);
+                for (LoginEvent event : batch) {
+                    eventLog.info(jsonMapper.writeValueAsString(event));
+                }
+                written.add(batch.size());
+            } catch (InterruptedException e) {
+                stopped = true;
+            } catch (RuntimeException e) {
+                log.warn("写登录事件日志失败: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.library.library_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录 / 找回账号的分阶段耗时和结果计数，经 /actuator/prometheus 导出。
+ * Timer 和 Counter 在启动时注册好，请求线程不经过 MeterRegistry 查找。
+ */
+@Service
+public class LoginMetrics {
+
+    // 登录阶段
+    public static final String VALIDATE = "validate";
+    public static final String QUERY = "query";
+    public static final String PASSWORD = "password";
+    public static final String ASSEMBLE = "assemble";
+
+    // 结果
+    public static final String SUCCESS = "success";
+    public static final String EMPTY_INPUT = "empty_input";
+    public static final String BAD_FORMAT = "bad_format";
+    public static final String NOT_FOUND = "not_found";
+    public static final String WRONG_PASSWORD = "wrong_password";
+    public static final String MAINTENANCE = "maintenance";
+    public static final String RATE_LIMITED = "rate_limited";
+    public static final String BUSY = "busy";
+    public static final String NOT_MODIFIED = "not_modified";
+    public static final String UNAUTHORIZED = "unauthorized";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> loginStages = new ConcurrentHashMap<>();
+    private final Map<String, Timer> findAccountStages = new ConcurrentHashMap<>();
+    private final Map<String, Counter> loginOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> findAccountOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> meOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> batches = new ConcurrentHashMap<>();
+
+    public LoginMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (String stage : new String[]{VALIDATE, QUERY, PASSWORD, ASSEMBLE}) {
+            loginStages.put(stage, timer("teacher.login.stage", stage));
+        }
+        for (String stage : new String[]{VALIDATE, QUERY}) {
+            findAccountStages.put(stage, timer("teacher.findaccount.stage", stage));
+        }
+        for (String outcome : new String[]{SUCCESS, EMPTY_INPUT, BAD_FORMAT, NOT_FOUND, WRONG_PASSWORD, MAINTENANCE, RATE_LIMITED, BUSY}) {
+            loginOutcomes.put(outcome, counter("teacher.login.outcome", outcome));
+            findAccountOutcomes.put(outcome, counter("teacher.findaccount.outcome", outcome));
+        }
+        for (String outcome : new String[]{SUCCESS, NOT_MODIFIED, UNAUTHORIZED, NOT_FOUND, MAINTENANCE}) {
+            meOutcomes.put(outcome, counter("teacher.me.outcome", outcome));
+        }
+    }
+
+    public void loginStage(String stage, long nanos) {
+        loginStages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void findAccountStage(String stage, long nanos) {
+        findAccountStages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void loginOutcome(String outcome) {
+        loginOutcomes.get(outcome).increment();
+    }
+
+    public void findAccountOutcome(String outcome) {
+        findAccountOutcomes.get(outcome).increment();
+    }
+
+    // GET /teacher/me：令牌无效 / 304 / 重新下发 / 维护中
+    public void meOutcome(String outcome) {
+        meOutcomes.get(outcome).increment();
+    }
+
+    // 登录成功返回的证书记录按期数计数 (期数是动态的，首次出现时注册)
+    public void batchServed(String batch) {
+        batches.computeIfAbsent(batch, b -> Counter.builder("teacher.login.batch")
+                .description("登录成功返回的证书记录数，按期数")
+                .tag("batch", b)
+                .register(registry)).increment();
+    }
+
+    private Timer timer(String name, String stage) {
+        // 导出直方图桶，p50/p95/p99 在 Prometheus 里用 histogram_quantile 计算 (多实例可聚合)
+        return Timer.builder(name)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private Counter counter(String name, String outcome) {
+        return Counter.builder(name).tag("outcome", outcome).register(registry);
+    }
+}
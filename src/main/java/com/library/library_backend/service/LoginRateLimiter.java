@@ -0,0 +1,136 @@
+package com.library.library_backend.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登录 / 找回账号的限流：登录按客户端 IP 和手机号 (登录成功的不计)，找回账号按身份证号和 IP，各自独立配置。
+ * 在查缓存和查库之前检查，撞库流量在这里就被挡掉，不占数据库连接。
+ */
+@Service
+public class LoginRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final Duration idleTimeout;
+    private final TokenBucketLimiter loginPhone;
+    private final TokenBucketLimiter loginIp;
+    private final TokenBucketLimiter findAccountIdCard;
+    private final TokenBucketLimiter findAccountIp;
+
+    public LoginRateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${app.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                            @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                            @Value("${app.rate-limit.login.phone:10/1m}") String loginPhone,
+                            @Value("${app.rate-limit.login.ip:300/1m}") String loginIp,
+                            @Value("${app.rate-limit.find-account.id-card:5/1m}") String findAccountIdCard,
+                            @Value("${app.rate-limit.find-account.ip:60/1m}") String findAccountIp) {
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.idleTimeout = idleTimeout;
+        this.loginPhone = new TokenBucketLimiter("login.phone", TokenBucketLimiter.Limit.parse(loginPhone));
+        this.loginIp = new TokenBucketLimiter("login.ip", TokenBucketLimiter.Limit.parse(loginIp));
+        this.findAccountIdCard = new TokenBucketLimiter("findAccount.idCard", TokenBucketLimiter.Limit.parse(findAccountIdCard));
+        this.findAccountIp = new TokenBucketLimiter("findAccount.ip", TokenBucketLimiter.Limit.parse(findAccountIp));
+        log.info("登录限流: enabled={}, login phone={} ip={}, findAccount idCard={} ip={}",
+                enabled, this.loginPhone.limit(), this.loginIp.limit(), this.findAccountIdCard.limit(), this.findAccountIp.limit());
+    }
+
+    /**
+     * 登录限流，返回 0 表示放行，否则为建议的重试等待秒数。先按 IP 再按手机号，
+     * IP 被拒时不消耗该手机号的令牌。手机号的令牌在校验密码之前就取走，登录成功后由 recordLoginSuccess 退还：
+     * 同一账号反复登录成功 (刷新、换设备、共用账号) 不会被锁；并发猜密码的请求各自占一个令牌，总数不会超过配置。
+     */
+    public long checkLogin(String phone) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = loginIp.tryAcquire(clientIp());
+        if (wait == 0) {
+            wait = loginPhone.tryAcquire(phone);
+        }
+        return toRetryAfterSeconds(wait);
+    }
+
+    // 密码校验通过：退还该手机号的令牌
+    public void recordLoginSuccess(String phone) {
+        if (enabled) {
+            loginPhone.refund(phone);
+        }
+    }
+
+    public long checkFindAccount(String idCard) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = findAccountIp.tryAcquire(clientIp());
+        if (wait == 0) {
+            wait = findAccountIdCard.tryAcquire(idCard);
+        }
+        return toRetryAfterSeconds(wait);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:60000}")
+    public void evictIdle() {
+        int evicted = 0;
+        for (TokenBucketLimiter limiter : limiters()) {
+            evicted += limiter.evictIdle(idleTimeout);
+        }
+        if (evicted > 0) {
+            log.debug("限流器清理空闲桶 {} 个", evicted);
+        }
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        for (TokenBucketLimiter limiter : limiters()) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("limit", limiter.limit().toString());
+            s.put("keys", limiter.size());
+            s.put("allowed", limiter.allowedCount());
+            s.put("rejected", limiter.rejectedCount());
+            snapshot.put(limiter.name(), s);
+        }
+        return snapshot;
+    }
+
+    public List<TokenBucketLimiter> limiters() {
+        return List.of(loginPhone, loginIp, findAccountIdCard, findAccountIp);
+    }
+
+    // 从当前请求取客户端 IP (不改控制器方法签名)；部署在反向代理后面时打开 trust-forwarded-for
+    private String clientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servlet)) {
+            return "unknown";
+        }
+        HttpServletRequest request = servlet.getRequest();
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return waitNanos == 0 ? 0 : Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,83 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.repository.TeacherLoginView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 登录响应里每条证书记录的组装：基础字段 + 期数 + OSS 预览/下载链接 + 文件是否已上传。
+ */
+@Service
+public class LoginResponseAssembler {
+
+    private final BatchResolver batchResolver;
+
+    // ✅ 配置 OSS 根路径 (根据你的 Bucket 设置)
+    private final String ossBaseUrl;
+
+    // 已上传文件清单，判断链接是否可用 (纯内存)
+    private final CertificateAssetManifest certificateAssetManifest;
+
+    public LoginResponseAssembler(BatchResolver batchResolver,
+                                  @Value("${app.oss.base-url:https://yangteam-files.oss-cn-hangzhou.aliyuncs.com/}") String ossBaseUrl,
+                                  CertificateAssetManifest certificateAssetManifest) {
+        this.batchResolver = batchResolver;
+        this.ossBaseUrl = ossBaseUrl;
+        this.certificateAssetManifest = certificateAssetManifest;
+    }
+
+    public Map<String, Object> toItem(TeacherLoginView t) {
+        Map<String, Object> item = new HashMap<>();
+        // 复制基础属性
+        item.put("id", t.id());
+        item.put("name", t.name());
+        item.put("phone", t.phone());
+        item.put("idCard", t.idCard());
+        item.put("category", t.category());
+        item.put("score", t.score());
+        item.put("certificateNo", t.certificateNo());
+        item.put("level", t.level());
+        item.put("sessions", t.sessions());
+
+        String batch = batchOf(t);
+        item.put("batch", batch);
+
+        // 拼接链接；文件不在清单里时前端显示 "证书生成中"，不去请求 404 的链接
+        String imgKey = imgKey(batch, t.idCard());
+        String pdfKey = pdfKey(batch, t.idCard());
+        item.put("imgUrl", ossBaseUrl + imgKey);
+        item.put("pdfUrl", ossBaseUrl + pdfKey);
+        item.put("imgAvailable", certificateAssetManifest.imgAvailable(imgKey));
+        item.put("pdfAvailable", certificateAssetManifest.pdfAvailable(pdfKey));
+        return item;
+    }
+
+    // 期数在写入/导入时已解析好，这里直接读；尚未回填的旧数据现场解析兜底
+    public String batchOf(TeacherLoginView t) {
+        return batchOf(t.batch(), t.sessions());
+    }
+
+    public String batchOf(Integer batch, String sessions) {
+        return String.valueOf(batch != null ? batch : batchResolver.resolve(sessions));
+    }
+
+    public String imgUrl(String batch, String idCard) {
+        return ossBaseUrl + imgKey(batch, idCard);
+    }
+
+    public String pdfUrl(String batch, String idCard) {
+        return ossBaseUrl + pdfKey(batch, idCard);
+    }
+
+    // OSS object key (不含域名)，与文件清单里的 key 一致
+    public static String imgKey(String batch, String idCard) {
+        return "preview/" + batch + "_" + idCard + "_img.png";
+    }
+
+    public static String pdfKey(String batch, String idCard) {
+        return "certs/" + batch + "_" + idCard + "_pdf.pdf";
+    }
+}
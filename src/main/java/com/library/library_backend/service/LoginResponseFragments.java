@@ -0,0 +1,127 @@
+package com.library.library_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.library_backend.repository.TeacherLoginView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登录响应片段缓存：每条证书记录的 JSON 预先编码成 UTF-8 字节，按手机号缓存。
+ * 登录时把片段直接拼进输出流 (SplicedJson)，不再每次 new HashMap、拼链接、由 Jackson 反射序列化。
+ * 片段和 TeacherLoginView 列表绑定：登录缓存因实体变更 / 导入 / 过期换了列表，或证书文件清单有变化时重新编码。
+ */
+@Service
+public class LoginResponseFragments {
+
+    private static final byte[] LOGIN_HEAD = "{\"code\":200,\"msg\":\"登录成功\",\"userList\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COMMA = {','};
+
+    // 一个手机号下全部记录的片段；batches 与 items 一一对应 (登录成功按期数计数用)
+    public record Fragments(List<TeacherLoginView> source, long manifestVersion, byte[][] items, String[] batches) {
+    }
+
+    /**
+     * 由预编码片段拼成的 JSON 响应体：head + items (逗号分隔) + tail，由 SplicedJsonHttpMessageConverter 写出。
+     */
+    public record SplicedJson(byte[] head, byte[][] items, byte[] tail) {
+
+        public long contentLength() {
+            long length = head.length + tail.length + Math.max(0, items.length - 1);
+            for (byte[] item : items) {
+                length += item.length;
+            }
+            return length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(head);
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) {
+                    out.write(COMMA);
+                }
+                out.write(items[i]);
+            }
+            out.write(tail);
+        }
+
+        public byte[] toByteArray() {
+            byte[] bytes = new byte[(int) contentLength()];
+            int pos = copy(head, bytes, 0);
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) {
+                    bytes[pos++] = ',';
+                }
+                pos = copy(items[i], bytes, pos);
+            }
+            copy(tail, bytes, pos);
+            return bytes;
+        }
+
+        private static int copy(byte[] from, byte[] to, int pos) {
+            System.arraycopy(from, 0, to, pos, from.length);
+            return pos + from.length;
+        }
+    }
+
+    private final LoginResponseAssembler loginResponseAssembler;
+    private final CertificateAssetManifest certificateAssetManifest;
+    private final JsonMapper jsonMapper;
+    private final Cache<String, Fragments> cache;
+
+    public LoginResponseFragments(LoginResponseAssembler loginResponseAssembler,
+                                  CertificateAssetManifest certificateAssetManifest, JsonMapper jsonMapper,
+                                  @Value("${app.cache.fragments.max-size:20000}") long maxSize,
+                                  @Value("${app.cache.fragments.ttl:10m}") Duration ttl) {
+        this.loginResponseAssembler = loginResponseAssembler;
+        this.certificateAssetManifest = certificateAssetManifest;
+        this.jsonMapper = jsonMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // teachers 是登录缓存返回的列表；同一个列表对象且清单没变时直接复用，否则重新编码
+    public Fragments forPhone(String phone, List<TeacherLoginView> teachers) {
+        long manifestVersion = certificateAssetManifest.version();
+        Fragments fragments = cache.getIfPresent(phone);
+        if (fragments != null && fragments.source() == teachers && fragments.manifestVersion() == manifestVersion) {
+            return fragments;
+        }
+        fragments = encode(teachers, manifestVersion);
+        cache.put(phone, fragments);
+        return fragments;
+    }
+
+    // 登录成功的响应：{"code":200,"msg":"登录成功","userList":[...],"token":"...","expiresIn":7200}
+    public SplicedJson loginBody(Fragments fragments, String token, long expiresIn) {
+        byte[] tail = ("],\"token\":\"" + token + "\",\"expiresIn\":" + expiresIn + "}").getBytes(StandardCharsets.UTF_8);
+        return new SplicedJson(LOGIN_HEAD, fragments.items(), tail);
+    }
+
+    // 给 Micrometer 绑定缓存指标用
+    Cache<String, ?> nativeCache() {
+        return cache;
+    }
+
+    private Fragments encode(List<TeacherLoginView> teachers, long manifestVersion) {
+        byte[][] items = new byte[teachers.size()][];
+        String[] batches = new String[teachers.size()];
+        for (int i = 0; i < items.length; i++) {
+            Map<String, Object> item = loginResponseAssembler.toItem(teachers.get(i));
+            batches[i] = (String) item.get("batch");
+            items[i] = jsonMapper.writeValueAsBytes(item);
+        }
+        return new Fragments(teachers, manifestVersion, items, batches);
+    }
+}
@@ -0,0 +1,81 @@
+package com.library.library_backend.service;
+
+/**
+ * long 的开放寻址哈希集合 (线性探测)，整张表就是一个 long[]，每个元素 8 字节左右，没有装箱和节点对象。
+ * 构建完成后只读；需要变更时用 with 复制出新集合再整体替换，读线程无锁。
+ * 0 用作空槽标记，值为 0 的元素映射成 1 存储。
+ */
+public class LongHashSet {
+
+    private final long[] table;
+    private final int mask;
+    private int size;
+
+    public LongHashSet(int expectedSize) {
+        // 负载因子不超过 0.5，查找平均 1~2 次探测
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public boolean add(long value) {
+        long v = value == 0 ? 1 : value;
+        int i = spread(v) & mask;
+        while (true) {
+            long current = table[i];
+            if (current == 0) {
+                if (size * 2 >= table.length) {
+                    throw new IllegalStateException("LongHashSet 已满: " + size);
+                }
+                table[i] = v;
+                size++;
+                return true;
+            }
+            if (current == v) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean contains(long value) {
+        long v = value == 0 ? 1 : value;
+        int i = spread(v) & mask;
+        while (true) {
+            long current = table[i];
+            if (current == v) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // 复制当前内容并加入 extra 的前 count 个元素，返回新集合 (当前集合不变)
+    public LongHashSet with(long[] extra, int count) {
+        LongHashSet next = new LongHashSet(size + count);
+        for (long v : table) {
+            if (v != 0) {
+                next.add(v);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            next.add(extra[i]);
+        }
+        return next;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    private static int spread(long v) {
+        return (int) (v ^ (v >>> 32));
+    }
+}
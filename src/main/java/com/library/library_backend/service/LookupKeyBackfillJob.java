@@ -0,0 +1,109 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 回填 teacherLookupKey：按 id 分段扫描 user_teacher，用 TeacherLookupKey 计算后批量更新。
+ * 回填完成前 findAccount 查不到时会退回按姓名+身份证查询 (见 isComplete)。
+ */
+@Service
+public class LookupKeyBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupKeyBackfillJob.class);
+
+    public record BackfillResult(long scanned, long updated, long elapsedMs) {
+    }
+
+    private record Row(long id, String name, String idCard, String lookupKey) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.lookup-key.backfill.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${app.lookup-key.backfill.on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // 同一时间只允许一个回填任务
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // 全表都已有查询键；之后的写入由实体监听和导入负责
+    private volatile boolean complete;
+
+    public LookupKeyBackfillJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // 启动后在后台补齐 teacherLookupKey 为空的记录，不阻塞启动
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            run(false);
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    // all=false 只处理 teacherLookupKey 为空的记录；all=true 全表重算 (修改归一化规则后使用)
+    public BackfillResult run(boolean all) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("查询键回填任务正在运行中");
+        }
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long updated = 0;
+        try {
+            String sql = "SELECT id, teacherReal, teacherIDCa, teacherLookupKey FROM user_teacher WHERE id > ?"
+                    + (all ? "" : " AND teacherLookupKey IS NULL")
+                    + " ORDER BY id LIMIT ?";
+            long lastId = 0;
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(sql,
+                        (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                        lastId, chunkSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Object[]> changes = new ArrayList<>();
+                for (Row row : rows) {
+                    String key = TeacherLookupKey.of(row.name(), row.idCard());
+                    if (key != null && !Objects.equals(key, row.lookupKey())) {
+                        changes.add(new Object[]{key, row.id()});
+                    }
+                }
+                if (!changes.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate("UPDATE user_teacher SET teacherLookupKey = ? WHERE id = ?", changes));
+                }
+                scanned += rows.size();
+                updated += changes.size();
+                lastId = rows.get(rows.size() - 1).id();
+            }
+            complete = true;
+        } finally {
+            running.set(false);
+        }
+        BackfillResult result = new BackfillResult(scanned, updated, System.currentTimeMillis() - start);
+        log.info("查询键回填完成: {}", result);
+        return result;
+    }
+}
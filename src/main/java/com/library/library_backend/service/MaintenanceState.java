@@ -0,0 +1,83 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 维护模式：运行中通过 POST /admin/maintenance 开关，不用改配置重启。
+ * 启动时的初始状态沿用原配置的两种判断：
+ * 配置了 app.maintenance.key 只拦登录 (带正确 secretKey 的仍可登录)，找回账号和 /teacher/me 照常；
+ * app.maintenance.enabled=true 时登录和找回账号都只放行带正确 secretKey 的请求，/teacher/me 返回 403。
+ * 运行中开启即等同后者，关闭则全部放行。
+ */
+@Service
+public class MaintenanceState {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceState.class);
+
+    // loginGated: 登录需要测试密钥；closed: 全站维护 (找回账号也需要密钥，/me 拒绝)
+    private record State(boolean loginGated, boolean closed, String key, LocalDateTime changedAt) {
+    }
+
+    private volatile State state;
+
+    public MaintenanceState(@Value("${app.maintenance.enabled:false}") boolean enabled,
+                            @Value("${app.maintenance.key:}") String key) {
+        String initialKey = key == null ? "" : key.trim();
+        this.state = new State(enabled || !initialKey.isEmpty(), enabled, initialKey, LocalDateTime.now());
+        if (state.loginGated()) {
+            log.warn("维护模式已开启 (启动配置{})", enabled ? "" : "，仅登录需要测试密钥");
+        }
+    }
+
+    public boolean isEnabled() {
+        return state.loginGated();
+    }
+
+    public boolean isClosed() {
+        return state.closed();
+    }
+
+    // 登录：维护中且密钥不对时返回 true
+    public boolean blocks(String inputKey) {
+        State current = state;
+        return current.loginGated() && !keyMatches(current, inputKey);
+    }
+
+    // 找回账号：只在全站维护时要求密钥 (与原接口的判断一致)
+    public boolean blocksFindAccount(String inputKey) {
+        State current = state;
+        return current.closed() && !keyMatches(current, inputKey);
+    }
+
+    private static boolean keyMatches(State current, String inputKey) {
+        return !current.key().isEmpty() && inputKey != null
+                && MessageDigest.isEqual(current.key().getBytes(StandardCharsets.UTF_8), inputKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // key 为 null 时保留原密钥，空串表示不允许任何人绕过
+    public synchronized Map<String, Object> set(boolean enabled, String key) {
+        String nextKey = key == null ? state.key() : key.trim();
+        state = new State(enabled, enabled, nextKey, LocalDateTime.now());
+        log.warn("维护模式已{} (测试密钥{})", enabled ? "开启" : "关闭", nextKey.isEmpty() ? "未设置" : "已设置");
+        return statsSnapshot();
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        State current = state;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", current.loginGated());
+        snapshot.put("closed", current.closed());
+        snapshot.put("keyConfigured", !current.key().isEmpty());
+        snapshot.put("changedAt", current.changedAt());
+        return snapshot;
+    }
+}
@@ -0,0 +1,74 @@
+package com.library.library_backend.service;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 密码哈希格式：pbkdf2_sha256$迭代次数$盐$哈希 (Base64)，存在 teacherPwdHash 列。
+ * 用 JDK 自带的 PBKDF2WithHmacSHA256，不引入额外依赖；迭代次数写在哈希里，调整后旧哈希照样能校验。
+ */
+public final class PasswordHashes {
+
+    public static final String PREFIX = "pbkdf2_sha256$";
+
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private PasswordHashes() {
+    }
+
+    public static String hash(String raw, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(pbkdf2(raw, salt, iterations));
+    }
+
+    // 格式不对的哈希一律视为不匹配
+    public static boolean verify(String stored, String raw) {
+        if (stored == null || raw == null || !stored.startsWith(PREFIX)) {
+            return false;
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(expected, pbkdf2(raw, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // 哈希里记录的迭代次数，格式不对返回 -1
+    public static int iterations(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return -1;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 ? -1 : Integer.parseInt(stored.substring(PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] pbkdf2(String raw, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(raw.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
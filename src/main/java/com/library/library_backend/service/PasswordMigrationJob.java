@@ -0,0 +1,184 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 在线迁移明文密码：按主键 id 分段扫描 user_teacher，为 teacherIDNu 计算 PBKDF2 哈希写入 teacherPwdHash。
+ * 每段只按主键小批量更新，段与段之间可以停顿，不锁表；迁移期间未迁移的记录登录时仍按明文比对。
+ * 同一手机号下密码相同的多期记录共用一条哈希 (沿用库里已有的那条)，登录时只需算一次。
+ * DBF 导入和 JPA 改密码都不计算哈希 (太慢 / 不放在 flush 线程上)，由定时任务补上。
+ * teacherIDNu 里的明文迁移后仍保留 (找回账号校验、健康检查、导入还在用)，只是不再读进登录缓存。
+ */
+@Service
+public class PasswordMigrationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordMigrationJob.class);
+
+    public record MigrationResult(long scanned, long updated, long elapsedMs) {
+    }
+
+    private record Row(long id, String phone, String password, String hash) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordVerifier passwordVerifier;
+
+    @Value("${app.password.migration.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${app.password.migration.pause-between-chunks:50ms}")
+    private Duration pauseBetweenChunks = Duration.ofMillis(50);
+
+    @Value("${app.password.migration.on-startup:true}")
+    private boolean migrateOnStartup;
+
+    // 同一时间只允许一个迁移任务
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public PasswordMigrationJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                PasswordVerifier passwordVerifier) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordVerifier = passwordVerifier;
+    }
+
+    // 启动后在后台迁移还没有哈希的记录，不阻塞启动
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrateOnStartup) {
+            runIfIdle();
+        }
+    }
+
+    // 定时补上导入等绕过 JPA 写入的新记录
+    @Scheduled(fixedDelayString = "${app.password.migration.interval:600000}", initialDelayString = "${app.password.migration.interval:600000}")
+    public void scheduledMigration() {
+        runIfIdle();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // all=false 只处理没有哈希的记录；all=true 同时重算迭代次数与当前配置不同的哈希
+    public MigrationResult run(boolean all) {
+        if (!passwordVerifier.isEnabled()) {
+            throw new IllegalStateException("密码哈希未启用 (app.password.hashing.enabled=false)");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("密码迁移任务正在运行中");
+        }
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long updated = 0;
+        try {
+            String sql = "SELECT id, teacherTel, teacherIDNu, teacherPwdHash FROM user_teacher "
+                    + "WHERE id > ? AND teacherIDNu IS NOT NULL"
+                    + (all ? "" : " AND teacherPwdHash IS NULL")
+                    + " ORDER BY id LIMIT ?";
+            long lastId = 0;
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(sql,
+                        (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                        lastId, chunkSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                // 同一 (手机号, 明文) 在本段内只校验/计算一次，优先沿用同号码其他记录已有的哈希
+                Map<List<String>, String> existing = existingHashes(rows);
+                Map<List<String>, String> shared = new HashMap<>();
+                List<Object[]> changes = new ArrayList<>();
+                for (Row row : rows) {
+                    lastId = row.id();
+                    String hash = shared.computeIfAbsent(Arrays.asList(row.phone(), row.password()),
+                            key -> passwordVerifier.hashFor(row.password(), existing.getOrDefault(key, row.hash())));
+                    if (!hash.equals(row.hash())) {
+                        changes.add(new Object[]{hash, row.id(), row.password()});
+                    }
+                }
+                // 只在明文没被并发修改时写入；被改过的记录哈希已被实体监听清空，下一轮再算
+                if (!changes.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                            "UPDATE user_teacher SET teacherPwdHash = ? WHERE id = ? AND teacherIDNu = ?", changes));
+                }
+                scanned += rows.size();
+                updated += changes.size();
+                if (rows.size() < chunkSize) {
+                    break;
+                }
+                pause();
+            }
+        } finally {
+            running.set(false);
+        }
+        MigrationResult result = new MigrationResult(scanned, updated, System.currentTimeMillis() - start);
+        if (updated > 0) {
+            log.info("密码哈希迁移完成: {}", result);
+        }
+        return result;
+    }
+
+    // 本段手机号下其他记录已有的哈希：按 id 扫描时同号码的多期记录不一定在同一段里
+    private Map<List<String>, String> existingHashes(List<Row> rows) {
+        Set<String> phones = new LinkedHashSet<>();
+        for (Row row : rows) {
+            if (row.phone() != null) {
+                phones.add(row.phone());
+            }
+        }
+        Map<List<String>, String> hashes = new HashMap<>();
+        if (phones.isEmpty()) {
+            return hashes;
+        }
+        String placeholders = String.join(",", Collections.nCopies(phones.size(), "?"));
+        jdbcTemplate.query("SELECT teacherTel, teacherIDNu, teacherPwdHash FROM user_teacher WHERE teacherTel IN (" + placeholders
+                        + ") AND teacherPwdHash IS NOT NULL",
+                rs -> {
+                    hashes.putIfAbsent(Arrays.asList(rs.getString(1), rs.getString(2)), rs.getString(3));
+                }, phones.toArray());
+        return hashes;
+    }
+
+    private void runIfIdle() {
+        if (passwordVerifier.isEnabled() && !running.get()) {
+            try {
+                run(false);
+            } catch (IllegalStateException e) {
+                log.debug("跳过密码迁移: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void pause() {
+        if (pauseBetweenChunks.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseBetweenChunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.library.library_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.library_backend.repository.TeacherLoginView;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录密码校验：有哈希 (teacherPwdHash) 的记录按 PBKDF2 校验，还没迁移的记录仍按明文比对。
+ * PBKDF2 是故意做慢的纯 CPU 计算，放在固定大小的专用线程池里执行，队列有界：
+ * 瞬时登录高峰时排不上队或等待超时直接 503，不会让请求线程 (虚拟线程) 无限堆积在 CPU 上。
+ * 最近校验成功的 (手机号, 密码摘要) 缓存一段时间，发榜当天反复登录只算一次 SHA-256。
+ */
+@Service
+public class PasswordVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+
+    // key: 手机号|SHA-256(进程内随机盐 + 密码)，value: 校验通过的那条哈希；改密码后哈希变了，旧条目自然失效
+    private final Cache<String, String> recent;
+    private final byte[] pepper = new byte[16];
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder hashChecks = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder plainChecks = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public PasswordVerifier(@Value("${app.password.hashing.enabled:true}") boolean enabled,
+                            @Value("${app.password.iterations:10000}") int iterations,
+                            @Value("${app.password.verifier.threads:0}") int threads,
+                            @Value("${app.password.verifier.queue-capacity:256}") int queueCapacity,
+                            @Value("${app.password.verifier.timeout:2s}") Duration timeout,
+                            @Value("${app.password.cache.max-size:50000}") long cacheMaxSize,
+                            @Value("${app.password.cache.ttl:10m}") Duration cacheTtl) {
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeout = timeout;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "password-verify-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        new SecureRandom().nextBytes(pepper);
+        log.info("密码校验: hashing={}, iterations={}, threads={}, queue={}, timeout={}",
+                enabled, iterations, poolSize, queueCapacity, timeout);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 新写入 / 迁移时用的哈希
+    public String hash(String raw) {
+        return PasswordHashes.hash(raw, iterations);
+    }
+
+    // 迁移时：已有哈希仍对应当前密码且迭代次数没变就沿用，否则重新计算；密码为空时没有哈希
+    public String hashFor(String raw, String existingHash) {
+        if (raw == null) {
+            return null;
+        }
+        if (PasswordHashes.iterations(existingHash) == iterations && PasswordHashes.verify(existingHash, raw)) {
+            return existingHash;
+        }
+        return hash(raw);
+    }
+
+    // 同一手机号下任意一条记录的密码匹配即可登录 (与原明文比对口径一致)
+    // 有哈希的记录投影里不带明文 (见 TeacherRepository)，所以关掉 hashing 后已有的哈希仍照常校验，只是不再生成新哈希
+    public boolean matches(String phone, List<TeacherLoginView> teachers, String password) {
+        if (password == null) {
+            return false;
+        }
+        Set<String> hashes = new LinkedHashSet<>();
+        for (TeacherLoginView t : teachers) {
+            if (t.passwordHash() != null) {
+                hashes.add(t.passwordHash());
+            } else {
+                plainChecks.increment();
+                if (TeacherCredentials.matches(t.password(), password)) {
+                    return true;
+                }
+            }
+        }
+        if (hashes.isEmpty()) {
+            return false;
+        }
+        String cacheKey = phone + "|" + digest(password);
+        String cached = recent.getIfPresent(cacheKey);
+        if (cached != null && hashes.contains(cached)) {
+            cacheHits.increment();
+            return true;
+        }
+        String matched = verifyOnPool(new ArrayList<>(hashes), password);
+        if (matched == null) {
+            return false;
+        }
+        recent.put(cacheKey, matched);
+        return true;
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        long checks = hashChecks.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("hashingEnabled", enabled);
+        snapshot.put("iterations", iterations);
+        snapshot.put("threads", executor.getMaximumPoolSize());
+        snapshot.put("active", executor.getActiveCount());
+        snapshot.put("queued", executor.getQueue().size());
+        snapshot.put("cacheSize", recent.estimatedSize());
+        snapshot.put("cacheHits", cacheHits.sum());
+        snapshot.put("hashChecks", checks);
+        snapshot.put("avgHashMs", checks == 0 ? 0.0 : hashNanos.sum() / 1_000_000.0 / checks);
+        snapshot.put("plainChecks", plainChecks.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("timeouts", timeouts.sum());
+        return snapshot;
+    }
+
+    public long cacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long hashCheckCount() {
+        return hashChecks.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum() + timeouts.sum();
+    }
+
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 在专用线程池上逐个校验 (多期记录通常共用一条哈希，见 PasswordMigrationJob)，返回匹配的哈希
+    private String verifyOnPool(List<String> hashes, String password) {
+        Future<String> future;
+        try {
+            future = executor.submit(() -> {
+                for (String hash : hashes) {
+                    long start = System.nanoTime();
+                    boolean ok = PasswordHashes.verify(hash, password);
+                    hashNanos.add(System.nanoTime() - start);
+                    hashChecks.increment();
+                    if (ok) {
+                        return hash;
+                    }
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordVerifierBusyException("系统繁忙，请稍后再试");
+        }
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new PasswordVerifierBusyException("系统繁忙，请稍后再试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordVerifierBusyException("密码校验被中断");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码校验失败", e.getCause());
+        }
+    }
+
+    private String digest(String password) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(pepper);
+            return HexFormat.of().formatHex(sha256.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.library.library_backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 密码校验线程池已满或排队超时：CPU 已满负荷，直接返回 503 让前端稍后重试
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordVerifierBusyException extends RuntimeException {
+
+    public PasswordVerifierBusyException(String message) {
+        super(message);
+    }
+}
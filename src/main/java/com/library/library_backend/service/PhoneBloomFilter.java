@@ -0,0 +1,215 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * user_teacher 全部手机号的 Bloom 过滤器：过滤器说 "不存在" 的手机号登录时直接返回账号或密码错误，不查缓存也不查库。
+ * 启动后按 id 分段流式扫描构建，本实例的新增/导入在提交后加入，定时全量重建。
+ * 构建完成前、每次重建和导入后的 grace-period 内，"不存在" 也放行去查登录缓存，不直接返回错误。
+ * 其他实例或直接 SQL 写入 (手工导入 user_teacher) 的号码要到下次重建才进过滤器，所以默认 trust-misses=false：
+ * 未命中一律放行去查库，只统计；只有本应用是 user_teacher 唯一写入方时才可打开，让未命中直接返回。
+ */
+@Service
+public class PhoneBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PhoneBloomFilter.class);
+
+    private static final String SCAN_SQL = "SELECT id, teacherTel FROM user_teacher WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.bloom.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate = 0.001;
+
+    // 容量 = 当前行数 × headroom，给两次重建之间的新增留余量
+    @Value("${app.bloom.headroom:1.5}")
+    private double headroom = 1.5;
+
+    @Value("${app.bloom.min-capacity:100000}")
+    private long minCapacity = 100_000;
+
+    @Value("${app.bloom.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    // true：未命中直接返回账号不存在；只有本应用是唯一写入方 (单实例、不手工导入) 时才可打开
+    @Value("${app.bloom.trust-misses:false}")
+    private boolean trustMisses;
+
+    @Value("${app.bloom.grace-period:5m}")
+    private Duration gracePeriod = Duration.ofMinutes(5);
+
+    // add() 和重建结束时的切换共用一把锁，保证新号码至少进入最终生效的那个过滤器
+    private final Object swapLock = new Object();
+    // 在此之前 (System.nanoTime) 的未命中不可信，放行
+    private volatile long trustMissesAfter = System.nanoTime();
+
+    private volatile BloomFilter current;
+    // 重建期间的新号码同时写入正在构建的过滤器，切换后不会丢
+    private volatile BloomFilter building;
+    private volatile LocalDateTime lastBuiltAt;
+    private volatile long lastBuildRows;
+    private volatile long lastBuildMs;
+
+    private final LongAdder savedQueries = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder untrustedMisses = new LongAdder();
+
+    public PhoneBloomFilter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.bloom.rebuild-interval:21600000}", initialDelayString = "${app.bloom.rebuild-interval:21600000}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // 全量重建后原子替换；同一时间只有一个重建
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.nanoTime();
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_teacher", Long.class);
+        BloomFilter next = new BloomFilter(Math.max(minCapacity, (long) ((rows == null ? 0 : rows) * headroom)), falsePositiveRate);
+        synchronized (swapLock) {
+            building = next;
+        }
+        long scanned = 0;
+        try {
+            long lastId = 0;
+            while (true) {
+                long[] cursor = {lastId, 0};
+                jdbcTemplate.query(SCAN_SQL, rs -> {
+                    cursor[0] = rs.getLong(1);
+                    cursor[1]++;
+                    String phone = TeacherLookupCache.normalize(rs.getString(2));
+                    if (phone != null && !phone.isEmpty()) {
+                        next.put(phone);
+                    }
+                }, lastId, chunkSize);
+                scanned += cursor[1];
+                if (cursor[1] < chunkSize) {
+                    break;
+                }
+                lastId = cursor[0];
+            }
+            synchronized (swapLock) {
+                current = next;
+                building = null;
+            }
+            holdOff();
+        } finally {
+            synchronized (swapLock) {
+                building = null;
+            }
+        }
+        lastBuiltAt = LocalDateTime.now();
+        lastBuildRows = scanned;
+        lastBuildMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("手机号 Bloom 过滤器已重建: {} 行, {} bits, k={}, 耗时 {} ms",
+                scanned, next.bitCount(), next.hashCount(), lastBuildMs);
+        return statsSnapshot();
+    }
+
+    // 未启用、尚未构建完成、未命中不可信 (见 trust-misses / grace-period) 时一律返回 true (放行去查库)
+    public boolean mightContain(String phone) {
+        BloomFilter filter = current;
+        if (!enabled || filter == null || phone == null) {
+            return true;
+        }
+        if (filter.mightContain(phone)) {
+            return true;
+        }
+        if (!trustMisses || System.nanoTime() - trustMissesAfter < 0) {
+            untrustedMisses.increment();
+            return true;
+        }
+        savedQueries.increment();
+        return false;
+    }
+
+    // 新增记录 (事务提交后) / 导入每块提交后调用
+    public void add(String phone) {
+        String key = TeacherLookupCache.normalize(phone);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        synchronized (swapLock) {
+            BloomFilter filter = current;
+            if (filter != null) {
+                filter.put(key);
+            }
+            BloomFilter next = building;
+            if (next != null) {
+                next.put(key);
+            }
+        }
+    }
+
+    // 接下来 grace-period 内的未命中放行：重建完成、批量导入开始/结束时调用
+    public void holdOff() {
+        trustMissesAfter = System.nanoTime() + gracePeriod.toNanos();
+    }
+
+    // 过滤器放行但库里查不到：误判 (或确实已被删除)
+    public void recordFalsePositive() {
+        if (current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    public long savedQueries() {
+        return savedQueries.sum();
+    }
+
+    public long falsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        BloomFilter filter = current;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("ready", filter != null);
+        snapshot.put("savedQueries", savedQueries.sum());
+        snapshot.put("falsePositives", falsePositives.sum());
+        snapshot.put("trustMisses", trustMisses && System.nanoTime() - trustMissesAfter >= 0);
+        snapshot.put("untrustedMisses", untrustedMisses.sum());
+        if (filter != null) {
+            snapshot.put("capacity", filter.expectedInsertions());
+            snapshot.put("bits", filter.bitCount());
+            snapshot.put("sizeKb", filter.bitCount() / 8 / 1024);
+            snapshot.put("hashes", filter.hashCount());
+            snapshot.put("targetFpp", filter.targetFpp());
+            snapshot.put("estimatedFpp", filter.estimatedFpp());
+        }
+        snapshot.put("lastBuiltAt", lastBuiltAt);
+        snapshot.put("lastBuildRows", lastBuildRows);
+        snapshot.put("lastBuildMs", lastBuildMs);
+        return snapshot;
+    }
+}
@@ -0,0 +1,157 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.repository.TeacherRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 启动时对 TeacherRepository 的每个 finder 执行 EXPLAIN，发现全表扫描就告警 (strict 模式直接启动失败)。
+ * 在所有 Bean 初始化完 (表结构已由 Hibernate 更新) 、Web 服务器启动之前执行，不会带着全表扫描接流量。
+ */
+@Service
+public class QueryPlanVerifier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    // finder 对应的 SQL 和示例参数；TeacherRepository 新增 finder 时要在这里登记
+    static final Map<String, Probe> PROBES = new LinkedHashMap<>();
+
+    static {
+        Probe byPhone = new Probe("SELECT * FROM user_teacher WHERE teacherTel = ?", "13800000000");
+        Probe byNameAndIdCard = new Probe("SELECT * FROM user_teacher WHERE teacherReal = ? AND teacherIDCa = ?",
+                "张三", "370702199001010000");
+        PROBES.put("findByPhone", byPhone);
+        PROBES.put("findAllByPhone", byPhone);
+        PROBES.put("findLoginViewsByPhone", byPhone);
+        PROBES.put("findLoginViewsByPhoneIn", new Probe("SELECT * FROM user_teacher WHERE teacherTel IN (?, ?, ?)",
+                "13800000000", "13800000001", "13800000002"));
+        PROBES.put("findByNameAndIdCard", byNameAndIdCard);
+        PROBES.put("findPhonesByNameAndIdCard", byNameAndIdCard);
+        PROBES.put("findPhonesByLookupKey", new Probe("SELECT teacherTel FROM user_teacher WHERE teacherLookupKey = ?",
+                "0".repeat(TeacherLookupKey.LENGTH)));
+    }
+
+    private static final Pattern H2_ACCESS = Pattern.compile("/\\*(.*?)\\*/", Pattern.DOTALL);
+
+    record Probe(String sql, Object... args) {
+    }
+
+    // scan=true 表示走了全表扫描；plan 为数据库返回的执行计划摘要
+    public record PlanCheck(String finder, String sql, boolean scan, String plan) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // off 不检查；warn 只打日志；strict 发现全表扫描则启动失败
+    @Value("${app.query-plan.mode:warn}")
+    private String mode = "warn";
+
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        List<PlanCheck> checks;
+        try {
+            checks = verify();
+        } catch (RuntimeException e) {
+            if ("strict".equalsIgnoreCase(mode)) {
+                throw e;
+            }
+            log.warn("执行计划检查失败，跳过: {}", e.getMessage());
+            return;
+        }
+        List<String> scans = new ArrayList<>(checks.stream().filter(PlanCheck::scan).map(PlanCheck::finder).toList());
+        scans.addAll(unregisteredFinders());
+        if (scans.isEmpty()) {
+            log.info("执行计划检查通过: {} 个 finder 均走索引", checks.size());
+            return;
+        }
+        if ("strict".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("以下查询会全表扫描 user_teacher 或未登记检查，请检查索引: " + scans);
+        }
+    }
+
+    // 逐个 finder 执行 EXPLAIN；目前支持 MySQL 和 H2，其他数据库返回空列表
+    public List<PlanCheck> verify() {
+        for (String finder : unregisteredFinders()) {
+            log.warn("TeacherRepository.{} 没有登记执行计划检查 (QueryPlanVerifier.PROBES)", finder);
+        }
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        String database = product == null ? "" : product.toLowerCase(Locale.ROOT);
+        if (!database.contains("mysql") && !database.contains("h2")) {
+            log.info("执行计划检查暂不支持 {}，跳过", product);
+            return List.of();
+        }
+
+        List<PlanCheck> checks = new ArrayList<>();
+        for (Map.Entry<String, Probe> entry : PROBES.entrySet()) {
+            Probe probe = entry.getValue();
+            PlanCheck check = database.contains("mysql")
+                    ? explainMysql(entry.getKey(), probe)
+                    : explainH2(entry.getKey(), probe);
+            if (check.scan()) {
+                log.warn("全表扫描: TeacherRepository.{} -> {} | {}", check.finder(), check.sql(), check.plan());
+            }
+            checks.add(check);
+        }
+        return checks;
+    }
+
+    // MySQL: type=ALL 即全表扫描；possible_keys 不为空说明索引存在，只是优化器认为表太小不值得用
+    private PlanCheck explainMysql(String finder, Probe probe) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + probe.sql(), probe.args());
+        boolean scan = false;
+        List<String> plan = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            String type = String.valueOf(row.get("type"));
+            Object possibleKeys = row.get("possible_keys");
+            plan.add("table=" + row.get("table") + " type=" + type + " key=" + row.get("key") + " possible_keys=" + possibleKeys);
+            if ("ALL".equalsIgnoreCase(type) && (possibleKeys == null || possibleKeys.toString().isBlank())) {
+                scan = true;
+            }
+        }
+        return new PlanCheck(finder, probe.sql(), scan, String.join("; ", plan));
+    }
+
+    // H2: 访问方式写在计划的注释里，出现 tableScan 即全表扫描
+    private PlanCheck explainH2(String finder, Probe probe) {
+        String plan = String.join(" ", jdbcTemplate.queryForList("EXPLAIN " + probe.sql(), String.class, probe.args()));
+        List<String> access = new ArrayList<>();
+        Matcher m = H2_ACCESS.matcher(plan);
+        while (m.find()) {
+            access.add(m.group(1).trim().replaceAll("\\s+", " "));
+        }
+        return new PlanCheck(finder, probe.sql(), plan.contains("tableScan"), access.isEmpty() ? plan : String.join("; ", access));
+    }
+
+    // TeacherRepository 里声明了但没有登记 SQL 的查询方法
+    static List<String> unregisteredFinders() {
+        TreeSet<String> missing = new TreeSet<>();
+        for (Method method : TeacherRepository.class.getDeclaredMethods()) {
+            if (method.getName().startsWith("find") && !PROBES.containsKey(method.getName())) {
+                missing.add(method.getName());
+            }
+        }
+        return List.copyOf(missing);
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.library_backend.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// 触发限流：返回 429，并通过 Retry-After 告诉客户端多少秒后再试
+public class RateLimitedException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitedException(long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "尝试过于频繁，请稍后再试");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
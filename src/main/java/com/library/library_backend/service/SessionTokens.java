@@ -0,0 +1,112 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 登录令牌：登录成功后签发 "手机号.过期时间(秒).签名"，签名为 HMAC-SHA256 截取前 16 字节 (Base64URL)。
+ * 校验只做一次 HMAC 和时间比较，不查库；令牌里没有密码信息，改密码后旧令牌在过期前仍然有效。
+ */
+@Service
+public class SessionTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokens.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public SessionTokens(@Value("${app.session.secret:}") String secret,
+                         @Value("${app.session.ttl:2h}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    // 测试可传入固定时钟
+    public SessionTokens(String secret, Duration ttl, Clock clock) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            // 未配置时每次启动随机生成：重启或多实例部署后旧令牌失效，前端重新登录即可
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("未配置 app.session.secret，登录令牌使用随机密钥，重启后需要重新登录");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public long ttlSeconds() {
+        return ttl.toSeconds();
+    }
+
+    public String issue(String phone) {
+        String payload = phone + "." + (clock.instant().getEpochSecond() + ttl.toSeconds());
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    // 签名正确且未过期时返回手机号，否则返回 null
+    public String verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int sigAt = token.lastIndexOf('.');
+        int expAt = sigAt <= 0 ? -1 : token.lastIndexOf('.', sigAt - 1);
+        if (expAt <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, sigAt);
+        byte[] signature;
+        long expiresAt;
+        try {
+            signature = DECODER.decode(token.substring(sigAt + 1));
+            expiresAt = Long.parseLong(token.substring(expAt + 1, sigAt));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(signature, sign(payload))) {
+            return null;
+        }
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            return null;
+        }
+        return token.substring(0, expAt);
+    }
+
+    // Mac 不是线程安全的，每次从初始化好的原型克隆一份，省掉重复的密钥初始化
+    private byte[] sign(String payload) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        return Arrays.copyOf(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+    }
+}
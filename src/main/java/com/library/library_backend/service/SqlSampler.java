@@ -0,0 +1,67 @@
+package com.library.library_backend.service;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 替代 spring.jpa.show-sql 的 SQL 诊断日志：默认关闭，可在运行时通过 /admin/diagnostics/sql 打开并设置采样率。
+ * 采中的 SQL 作为 SQL 类型事件交给 LoginEventLogger 异步写出，请求线程不直接写控制台。
+ */
+@Component
+public class SqlSampler implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final LoginEventLogger loginEventLogger;
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+    private final LongAdder seen = new LongAdder();
+
+    public SqlSampler(LoginEventLogger loginEventLogger,
+                      @Value("${app.sql-log.enabled:false}") boolean enabled,
+                      @Value("${app.sql-log.sample-rate:0.01}") double sampleRate) {
+        this.loginEventLogger = loginEventLogger;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    // 把自己注册为 Hibernate 的 StatementInspector
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    // 只观察不修改，原样返回 SQL
+    @Override
+    public String inspect(String sql) {
+        if (enabled) {
+            seen.increment();
+            if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                loginEventLogger.publish(new LoginEventLogger.LoginEvent(System.currentTimeMillis(), LoginEventLogger.SQL,
+                        null, 0, 0, sql));
+            }
+        }
+        return sql;
+    }
+
+    public void configure(boolean enabled, Double sampleRate) {
+        if (sampleRate != null) {
+            this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+        }
+        this.enabled = enabled;
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("sampleRate", sampleRate);
+        snapshot.put("seen", seen.sum());
+        return snapshot;
+    }
+}
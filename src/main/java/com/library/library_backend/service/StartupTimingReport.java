@@ -0,0 +1,122 @@
+package com.library.library_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 启动耗时明细：应用就绪时把 BufferingApplicationStartup 记录的步骤汇总成
+ * 各阶段耗时 (按步骤名累计) 和最慢的 bean (自身耗时，已扣除它依赖的 bean 的创建时间)，打到日志并留给 GET /admin/startup。
+ * 只有通过 LibraryBackendApplication.main 启动时才有记录；汇总后清空缓冲区。
+ */
+@Service
+public class StartupTimingReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    // 一个 bean 的创建：total 含依赖，self 不含
+    public record BeanTiming(String bean, double selfMs, double totalMs) {
+    }
+
+    private final ApplicationStartup applicationStartup;
+    private final int topBeans;
+
+    private volatile Map<String, Object> snapshot = Map.of("available", false);
+
+    public StartupTimingReport(ApplicationStartup applicationStartup,
+                               @Value("${app.startup.report.top-beans:15}") int topBeans) {
+        this.applicationStartup = applicationStartup;
+        this.topBeans = topBeans;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        snapshot = summarize(timeline.getEvents(), event.getTimeTaken(), topBeans);
+        log.info("启动耗时 {} ms，各阶段: {}", snapshot.get("readyMs"), snapshot.get("phases"));
+        for (Object item : (List<?>) snapshot.get("slowestBeans")) {
+            BeanTiming bean = (BeanTiming) item;
+            log.info("  {}: 自身 {} ms，含依赖 {} ms", bean.bean(), bean.selfMs(), bean.totalMs());
+        }
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        return snapshot;
+    }
+
+    static Map<String, Object> summarize(List<StartupTimeline.TimelineEvent> events, Duration timeTaken, int topBeans) {
+        // 阶段：非 bean 步骤按名字累计，保持第一次出现的顺序
+        Map<String, Double> phases = new LinkedHashMap<>();
+        Map<Long, StartupTimeline.TimelineEvent> beanSteps = new HashMap<>();
+        Map<Long, Long> childNanos = new HashMap<>();
+        List<StartupTimeline.TimelineEvent> ordered = new ArrayList<>(events);
+        ordered.sort(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime));
+        for (StartupTimeline.TimelineEvent event : ordered) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_STEP.equals(step.getName())) {
+                beanSteps.put(step.getId(), event);
+            } else {
+                phases.merge(step.getName(), millis(event.getDuration()), Double::sum);
+            }
+        }
+        for (StartupTimeline.TimelineEvent event : beanSteps.values()) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null && beanSteps.containsKey(parentId)) {
+                childNanos.merge(parentId, event.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        List<BeanTiming> beans = new ArrayList<>(beanSteps.size());
+        for (StartupTimeline.TimelineEvent event : beanSteps.values()) {
+            long self = event.getDuration().toNanos() - childNanos.getOrDefault(event.getStartupStep().getId(), 0L);
+            beans.add(new BeanTiming(beanName(event.getStartupStep()), round(self / 1_000_000.0), round(millis(event.getDuration()))));
+        }
+        beans.sort(Comparator.comparingDouble(BeanTiming::selfMs).reversed());
+        phases.replaceAll((name, ms) -> round(ms));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("available", true);
+        snapshot.put("readyMs", timeTaken == null ? null : timeTaken.toMillis());
+        snapshot.put("beansCreated", beans.size());
+        snapshot.put("phases", phases);
+        snapshot.put("slowestBeans", List.copyOf(beans.subList(0, Math.min(topBeans, beans.size()))));
+        return snapshot;
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 10) / 10.0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.library.library_backend.service;
+
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.repository.TeacherRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按手机号批量查询 (运维/客服工具)：每块手机号一条 IN 查询，结果按手机号分组，
+ * 每个手机号输出一行 JSON (NDJSON)，记录内容与登录接口的 userList 相同。
+ */
+@Service
+public class TeacherBulkLookupService {
+
+    private final TeacherRepository teacherRepository;
+    private final DbAccessGate dbAccessGate;
+    private final LoginResponseAssembler loginResponseAssembler;
+    private final JsonMapper jsonMapper;
+    private final int maxPhones;
+    private final int chunkSize;
+
+    public TeacherBulkLookupService(TeacherRepository teacherRepository, DbAccessGate dbAccessGate,
+                                    LoginResponseAssembler loginResponseAssembler, JsonMapper jsonMapper,
+                                    @Value("${app.bulk-lookup.max-phones:1000}") int maxPhones,
+                                    @Value("${app.bulk-lookup.chunk-size:500}") int chunkSize) {
+        this.teacherRepository = teacherRepository;
+        this.dbAccessGate = dbAccessGate;
+        this.loginResponseAssembler = loginResponseAssembler;
+        this.jsonMapper = jsonMapper;
+        this.maxPhones = maxPhones;
+        this.chunkSize = chunkSize;
+    }
+
+    // trim、去空、去重 (保持请求顺序)；超过上限直接拒绝，在开始输出之前校验
+    public List<String> normalize(Collection<String> phones) {
+        if (phones == null || phones.isEmpty()) {
+            throw new IllegalArgumentException("手机号列表不能为空");
+        }
+        Set<String> unique = new LinkedHashSet<>();
+        for (String phone : phones) {
+            String key = TeacherLookupCache.normalize(phone);
+            if (key != null && !key.isEmpty()) {
+                unique.add(key);
+            }
+        }
+        if (unique.size() > maxPhones) {
+            throw new IllegalArgumentException("一次最多查询 " + maxPhones + " 个手机号，本次 " + unique.size() + " 个");
+        }
+        return new ArrayList<>(unique);
+    }
+
+    /**
+     * 逐块查询并写出，每块写完 flush 一次，调用方边查边收。
+     * 每行格式 {"phone":"...","found":true,"userList":[...]}，查不到的手机号 userList 为空。
+     */
+    public void write(List<String> phones, OutputStream out) throws IOException {
+        for (int from = 0; from < phones.size(); from += chunkSize) {
+            List<String> chunk = phones.subList(from, Math.min(from + chunkSize, phones.size()));
+            List<TeacherLoginView> rows = dbAccessGate.call(() -> teacherRepository.findLoginViewsByPhoneIn(chunk));
+
+            Map<String, List<Map<String, Object>>> byPhone = new HashMap<>();
+            for (TeacherLoginView t : rows) {
+                byPhone.computeIfAbsent(TeacherLookupCache.normalize(t.phone()), p -> new ArrayList<>())
+                        .add(loginResponseAssembler.toItem(t));
+            }
+            for (String phone : chunk) {
+                List<Map<String, Object>> items = byPhone.getOrDefault(phone, List.of());
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("phone", phone);
+                line.put("found", !items.isEmpty());
+                line.put("userList", items);
+                out.write(jsonMapper.writeValueAsBytes(line));
+                out.write('\n');
+            }
+            out.flush();
+        }
+    }
+}
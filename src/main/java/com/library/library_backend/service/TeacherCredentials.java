@@ -0,0 +1,23 @@
+package com.library.library_backend.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * 登录账号格式与密码比对规则 (账号为手机号，密码为身份证后六位，明文比对)。
+ * 登录接口和账号批量校验共用，保证两边口径一致。
+ */
+public final class TeacherCredentials {
+
+    public static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+
+    private TeacherCredentials() {
+    }
+
+    public static boolean isValidPhone(String phone) {
+        return PHONE_PATTERN.matcher(phone.trim()).matches();
+    }
+
+    public static boolean matches(String stored, String input) {
+        return stored != null && stored.equals(input);
+    }
+}
@@ -0,0 +1,92 @@
+package com.library.library_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.repository.TeacherRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登录查询的进程内缓存：按规范化手机号缓存登录投影 (TeacherLoginView) 的查询结果。
+ * 发榜当天同一个老师会反复刷新，命中缓存后不再访问 MySQL。
+ */
+@Service
+public class TeacherLookupCache {
+
+    private final TeacherRepository teacherRepository;
+    private final DbAccessGate dbAccessGate;
+    private final LoadingCache<String, List<TeacherLoginView>> cache;
+
+    public TeacherLookupCache(TeacherRepository teacherRepository, DbAccessGate dbAccessGate,
+                              @Value("${app.cache.login.max-size:20000}") long maxSize,
+                              @Value("${app.cache.login.ttl:10m}") Duration ttl) {
+        this.teacherRepository = teacherRepository;
+        this.dbAccessGate = dbAccessGate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::load);
+    }
+
+    // 手机号统一 trim 后作为 key，保证 " 138..." 和 "138..." 命中同一条
+    public static String normalize(String phone) {
+        return phone == null ? null : phone.trim();
+    }
+
+    // 读穿透：未命中时查库并缓存（查不到的空结果也缓存，TTL 到期或写入时失效）
+    public List<TeacherLoginView> findAllByPhone(String phone) {
+        String key = normalize(phone);
+        if (key == null || key.isEmpty()) {
+            return List.of();
+        }
+        return cache.get(key);
+    }
+
+    public void invalidate(String phone) {
+        String key = normalize(phone);
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    // 批量导入等绕过 JPA 的写入，完成后整体失效
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Map<String, Object> statsSnapshot() {
+        CacheStats s = cache.stats();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", cache.estimatedSize());
+        snapshot.put("hitCount", s.hitCount());
+        snapshot.put("missCount", s.missCount());
+        snapshot.put("hitRate", s.hitRate());
+        snapshot.put("evictionCount", s.evictionCount());
+        snapshot.put("loadFailureCount", s.loadFailureCount());
+        snapshot.put("averageLoadPenaltyMs", s.averageLoadPenalty() / 1_000_000.0);
+        return snapshot;
+    }
+
+    // 给 Micrometer 绑定缓存指标用
+    Cache<String, List<TeacherLoginView>> nativeCache() {
+        return cache;
+    }
+
+    private List<TeacherLoginView> load(String phone) {
+        List<TeacherLoginView> teachers = dbAccessGate.call(() -> teacherRepository.findLoginViewsByPhone(phone));
+        return teachers == null ? List.of() : List.copyOf(teachers);
+    }
+}
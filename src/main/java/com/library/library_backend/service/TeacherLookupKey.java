@@ -0,0 +1,39 @@
+package com.library.library_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * 找回账号的查询键：SHA-256(去空白的姓名 + '|' + 大写的身份证号)，64 位十六进制，存在 teacherLookupKey 列。
+ * 原始列没有 trim、各期导入的排序规则也不一致，按这个定长键查询只需一次窄索引探测，与排序规则无关。
+ * 实体监听、DBF 导入、回填任务和 findAccount 都调用这里，保证口径一致。
+ */
+public final class TeacherLookupKey {
+
+    public static final int LENGTH = 64;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private TeacherLookupKey() {
+    }
+
+    // 姓名或身份证为空时返回 null (这类记录本来也无法找回)
+    public static String of(String name, String idCard) {
+        if (name == null || idCard == null || name.isBlank() || idCard.isBlank()) {
+            return null;
+        }
+        String normalized = name.strip() + "|" + idCard.strip().toUpperCase(Locale.ROOT);
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+    }
+}
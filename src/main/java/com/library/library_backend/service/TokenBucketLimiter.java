@@ -0,0 +1,137 @@
+package com.library.library_backend.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 按 key 的令牌桶限流，无锁实现：每个桶只有一个 AtomicLong (下一个令牌的理论到达时间，即 GCRA 算法)，
+ * 判断和扣减是一次 CAS，被拒绝的请求不分配对象、不加锁。
+ * 长时间没有访问的桶已经回满，和新桶等价，由 evictIdle 定期清理。
+ */
+public class TokenBucketLimiter {
+
+    // permits 个令牌 / period，桶容量也是 permits (允许一次性突发)
+    public record Limit(int permits, Duration period) {
+
+        // 格式 "10/1m"
+        public static Limit parse(String spec) {
+            String[] parts = spec.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("限流配置格式应为 次数/时长，例如 10/1m: " + spec);
+            }
+            return new Limit(Integer.parseInt(parts[0].trim()), parseDuration(parts[1].trim()));
+        }
+
+        private static Duration parseDuration(String s) {
+            long amount = Long.parseLong(s.substring(0, s.length() - 1));
+            return switch (s.charAt(s.length() - 1)) {
+                case 's' -> Duration.ofSeconds(amount);
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("不支持的时长单位: " + s);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return permits + "/" + period;
+        }
+    }
+
+    private final String name;
+    private final Limit limit;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucketLimiter(String name, Limit limit) {
+        this(name, limit, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(String name, Limit limit, LongSupplier clock) {
+        this.name = name;
+        this.limit = limit;
+        this.intervalNanos = limit.period().toNanos() / limit.permits();
+        this.toleranceNanos = intervalNanos * (limit.permits() - 1);
+        this.clock = clock;
+    }
+
+    /**
+     * 取一个令牌。返回 0 表示放行；否则返回还需要等待的纳秒数 (可用于 Retry-After)。
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            AtomicLong created = new AtomicLong(now);
+            AtomicLong existing = buckets.putIfAbsent(key, created);
+            tat = existing != null ? existing : created;
+        }
+        while (true) {
+            long current = tat.get();
+            long base = current - now > 0 ? current : now;
+            long wait = base - now - toleranceNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + intervalNanos)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    // 退还一个先前取到的令牌 (例如登录成功不计次)；桶已满时不再多退
+    public void refund(String key) {
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            long current = tat.get();
+            if (current - now <= 0) {
+                return;
+            }
+            long refunded = current - intervalNanos;
+            if (tat.compareAndSet(current, refunded - now > 0 ? refunded : now)) {
+                return;
+            }
+        }
+    }
+
+    // 清理空闲超过 idle 的桶 (它们早已回满)；并发中被清理的桶最多让该 key 多放行一次
+    public int evictIdle(Duration idle) {
+        long threshold = clock.getAsLong() - idle.toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(tat -> tat.get() - threshold < 0);
+        return before - buckets.size();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Limit limit() {
+        return limit;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long allowedCount() {
+        return allowed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,61 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.AccountVerificationService;
+import com.library.library_backend.service.AccountVerificationService.BrokenAccount;
+import com.library.library_backend.service.AccountVerificationService.Credential;
+import com.library.library_backend.service.AccountVerificationService.VerificationResult;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the verification engine on in-memory groups, no database needed
+class AccountVerificationServiceTest {
+
+    @Test
+    void classifiesBrokenAccounts() {
+        assertThat(AccountVerificationService.check("13800000001",
+                List.of(new Credential(1, "13800000001", "123456")))).isNull();
+        // Trailing spaces are ignored by MySQL, so the record is still found
+        assertThat(AccountVerificationService.check("13800000002",
+                List.of(new Credential(2, "13800000002  ", "123456")))).isNull();
+
+        assertThat(reason("2380000000", new Credential(3, "2380000000", "123456"))).isEqualTo("BAD_PHONE_FORMAT");
+        assertThat(reason("13800000004", new Credential(4, " 13800000004", "123456"))).isEqualTo("UNREACHABLE_PHONE");
+        assertThat(reason("13800000005", new Credential(5, "13800000005", null))).isEqualTo("NO_PASSWORD");
+        assertThat(reason("13800000006", new Credential(6, "13800000006", "123456 "))).isEqualTo("PASSWORD_WHITESPACE");
+    }
+
+    @Test
+    void oneGoodRecordIsEnough() {
+        assertThat(AccountVerificationService.check("13800000007", List.of(
+                new Credential(7, "13800000007", null),
+                new Credential(8, "13800000007", "654321")))).isNull();
+    }
+
+    @Test
+    void verifiesManyGroupsConcurrently() {
+        Map<String, List<Credential>> groups = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String phone = String.format("139%08d", i);
+            String password = i % 1000 == 0 ? null : "000000";
+            groups.put(phone, List.of(new Credential(i, phone, password)));
+        }
+
+        AccountVerificationService service = new AccountVerificationService(null, JsonMapper.builder().build());
+        VerificationResult result = service.verify(groups, groups.size());
+
+        assertThat(result.phones()).isEqualTo(20_000);
+        assertThat(result.broken()).isEqualTo(20);
+        assertThat(result.brokenAccounts()).extracting(BrokenAccount::reason).containsOnly("NO_PASSWORD");
+        assertThat(service.progress().completed()).isEqualTo(20_000);
+    }
+
+    private static String reason(String phone, Credential credential) {
+        return AccountVerificationService.check(phone, List.of(credential)).reason();
+    }
+}
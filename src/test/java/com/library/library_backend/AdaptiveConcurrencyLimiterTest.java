@@ -0,0 +1,202 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.AdaptiveConcurrencyLimiter;
+import com.library.library_backend.service.DbAccessGate;
+import com.library.library_backend.service.MaintenanceState;
+import com.library.library_backend.service.PhoneBloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// AIMD limit driven by DB gate latency, 503 + Retry-After over the limit, maintenance mode toggled at runtime
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void limitFollowsQueryLatency() {
+        DbAccessGate gate = new DbAccessGate(true, 10, Duration.ofSeconds(5));
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(gate, true, 10, 2, 20,
+                Duration.ofMillis(50), 0.5, Duration.ofMillis(100), Duration.ofSeconds(3), clock::get);
+
+        // Over the limit: rejected immediately, not queued
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.rejectedCount()).isEqualTo(1);
+        assertThat(limiter.retryAfterSeconds()).isEqualTo(3);
+
+        // Saturated window with a healthy DB: additive increase
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.limit()).isEqualTo(11);
+        releaseAll(limiter);
+
+        // Slow queries: multiplicative decrease, floored at min-limit
+        slowQuery(gate);
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        limiter.tryAcquire();
+        assertThat(limiter.limit()).isEqualTo(5);
+        limiter.release();
+        for (int i = 0; i < 2; i++) {
+            slowQuery(gate);
+            clock.addAndGet(Duration.ofMillis(100).toNanos());
+            limiter.tryAcquire();
+            limiter.release();
+        }
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        // A window with no DB traffic and spare capacity leaves the limit alone
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.limit()).isEqualTo(2);
+
+        // Fast queries while saturated: grows back one step per window
+        assertThat(limiter.tryAcquire()).isTrue();
+        gate.call(() -> 1);
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.limit()).isEqualTo(3);
+        assertThat(limiter.inflight()).isEqualTo(3);
+        releaseAll(limiter);
+
+        AdaptiveConcurrencyLimiter disabled = new AdaptiveConcurrencyLimiter(gate, false, 1, 1, 1,
+                Duration.ofMillis(50), 0.5, Duration.ofMillis(100), Duration.ofSeconds(3), clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertThat(disabled.tryAcquire()).isTrue();
+        }
+    }
+
+    @Test
+    void shedsLoadAndTogglesMaintenance() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(50, 0.0, 0.0, 11));
+        SyntheticTeachers.Person person = data.people().get(0);
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:limiter;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--app.adaptive-limit.enabled=true",
+                "--app.adaptive-limit.initial-limit=1",
+                "--app.adaptive-limit.min-limit=1",
+                "--app.adaptive-limit.max-limit=1",
+                "--app.adaptive-limit.retry-after=3s")) {
+
+            data.seed(ctx.getBean(JdbcTemplate.class));
+            ctx.getBean(PhoneBloomFilter.class).rebuild();
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newHttpClient();
+            String credentials = "\"phone\":\"" + person.phone() + "\",\"password\":\"" + person.password() + "\"";
+
+            AdaptiveConcurrencyLimiter limiter = ctx.getBean(AdaptiveConcurrencyLimiter.class);
+            assertThat(login(http, base, credentials, limiter).statusCode()).isEqualTo(200);
+
+            // The only slot is taken by an in-flight request: the next one gets 503 right away
+            assertThat(limiter.tryAcquire()).isTrue();
+            HttpResponse<String> shed = login(http, base, credentials, null);
+            assertThat(shed.statusCode()).isEqualTo(503);
+            assertThat(shed.headers().firstValue("Retry-After")).hasValue("3");
+            assertThat(shed.body()).contains("3 秒后再试");
+            assertThat(limiter.rejectedCount()).isEqualTo(1);
+            // Admin endpoints are not limited
+            HttpResponse<String> stats = admin(http, base + "/admin/limiter", null);
+            assertThat(stats.statusCode()).isEqualTo(200);
+            assertThat(stats.body()).contains("\"rejected\":1");
+            limiter.release();
+            assertThat(login(http, base, credentials, limiter).statusCode()).isEqualTo(200);
+            awaitIdle(limiter);
+            assertThat(limiter.inflight()).isZero();
+
+            // Maintenance on at runtime: only the test key gets through
+            assertThat(admin(http, base + "/admin/maintenance?enabled=true&key=k-123", "").statusCode()).isEqualTo(200);
+            assertThat(login(http, base, credentials, limiter).statusCode()).isEqualTo(403);
+            assertThat(login(http, base, credentials + ",\"secretKey\":\"wrong\"", limiter).statusCode()).isEqualTo(403);
+            assertThat(login(http, base, credentials + ",\"secretKey\":\"k-123\"", limiter).statusCode()).isEqualTo(200);
+            assertThat(admin(http, base + "/admin/maintenance", null).body()).contains("\"enabled\":true");
+
+            // And off again, no restart
+            assertThat(admin(http, base + "/admin/maintenance?enabled=false", "").statusCode()).isEqualTo(200);
+            assertThat(login(http, base, credentials, limiter).statusCode()).isEqualTo(200);
+            assertThat(admin(http, base + "/admin/maintenance?enabled=true", "").statusCode()).isEqualTo(200);
+            assertThat(login(http, base, credentials + ",\"secretKey\":\"k-123\"", limiter).statusCode()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void maintenanceStartupConfigKeepsOriginalChecks() {
+        // Only a key configured: login needs it, find-account and /me stay open (as the original endpoints did)
+        MaintenanceState keyOnly = new MaintenanceState(false, "k-123");
+        assertThat(keyOnly.blocks(null)).isTrue();
+        assertThat(keyOnly.blocks("k-123")).isFalse();
+        assertThat(keyOnly.blocksFindAccount(null)).isFalse();
+        assertThat(keyOnly.isClosed()).isFalse();
+
+        // The flag closes everything except requests carrying the key
+        MaintenanceState closed = new MaintenanceState(true, "k-123");
+        assertThat(closed.blocks(null)).isTrue();
+        assertThat(closed.blocksFindAccount(null)).isTrue();
+        assertThat(closed.blocksFindAccount("k-123")).isFalse();
+        assertThat(closed.isClosed()).isTrue();
+
+        // Switching on at runtime is the flag; switching off opens everything
+        keyOnly.set(true, null);
+        assertThat(keyOnly.blocksFindAccount(null)).isTrue();
+        keyOnly.set(false, null);
+        assertThat(keyOnly.blocks(null)).isFalse();
+        assertThat(keyOnly.blocksFindAccount(null)).isFalse();
+    }
+
+    private static void slowQuery(DbAccessGate gate) {
+        gate.call(() -> {
+            try {
+                Thread.sleep(80);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+    }
+
+    private static void awaitIdle(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (limiter.inflight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void releaseAll(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.inflight() > 0) {
+            limiter.release();
+        }
+    }
+
+    // With a limit of 1, wait for the previous request to hand its slot back (afterCompletion may run
+    // just after the client already has the response); limiter == null sends straight away
+    private static HttpResponse<String> login(HttpClient http, String base, String fields,
+                                              AdaptiveConcurrencyLimiter limiter) throws Exception {
+        if (limiter != null) {
+            awaitIdle(limiter);
+        }
+        return http.send(HttpRequest.newBuilder(URI.create(base + "/teacher/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{" + fields + "}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // body == null: GET, otherwise POST
+    private static HttpResponse<String> admin(HttpClient http, String url, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).header("X-Admin-Key", "loadtest-admin");
+        request = body == null ? request.GET() : request.POST(HttpRequest.BodyPublishers.ofString(body));
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
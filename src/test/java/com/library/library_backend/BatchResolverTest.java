@@ -0,0 +1,79 @@
+package com.library.library_backend;
+
+import com.library.library_backend.entity.BatchDefinition;
+import com.library.library_backend.repository.BatchDefinitionRepository;
+import com.library.library_backend.service.BatchRegistry;
+import com.library.library_backend.service.BatchResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Pure unit test, no Spring context / database needed
+class BatchResolverTest {
+
+    private final List<BatchDefinition> table = new ArrayList<>();
+    private BatchRegistry registry;
+    private BatchResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        table.clear();
+        table.add(def(7, "7,七"));
+        table.add(def(8, "8,八"));
+        table.add(def(9, "9,九"));
+
+        BatchDefinitionRepository repository = mock(BatchDefinitionRepository.class);
+        when(repository.count()).thenAnswer(inv -> (long) table.size());
+        when(repository.findAll()).thenAnswer(inv -> List.copyOf(table));
+
+        registry = new BatchRegistry(repository);
+        registry.init();
+        resolver = new BatchResolver(registry, 7);
+    }
+
+    @Test
+    void resolvesArabicAndChineseNumerals() {
+        assertThat(resolver.resolve("第9期")).isEqualTo(9);
+        assertThat(resolver.resolve("第九期")).isEqualTo(9);
+        assertThat(resolver.resolve("第八期")).isEqualTo(8);
+        assertThat(resolver.resolve("第7期")).isEqualTo(7);
+    }
+
+    @Test
+    void higherBatchWinsLikeTheOldCascade() {
+        // The old controller checked 9 before 8 before 7
+        assertThat(resolver.resolve("7-9期合并")).isEqualTo(9);
+    }
+
+    @Test
+    void fallsBackToDefaultBatch() {
+        assertThat(resolver.resolve(null)).isEqualTo(7);
+        assertThat(resolver.resolve("")).isEqualTo(7);
+        assertThat(resolver.resolve("未知")).isEqualTo(7);
+    }
+
+    @Test
+    void newBatchIsADataChange() {
+        assertThat(resolver.resolve("第10期")).isEqualTo(7);
+
+        table.add(def(10, "十"));
+        registry.reload();
+
+        assertThat(resolver.resolve("第10期")).isEqualTo(10);
+        assertThat(resolver.resolve("第十期")).isEqualTo(10);
+        assertThat(resolver.resolve("第9期")).isEqualTo(9);
+    }
+
+    private static BatchDefinition def(int batchNo, String aliases) {
+        BatchDefinition def = new BatchDefinition();
+        def.setBatchNo(batchNo);
+        def.setAliases(aliases);
+        return def;
+    }
+}
@@ -0,0 +1,83 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Phone Bloom filter: sizing, no false negatives, false-positive rate close to the target
+class BloomFilterTest {
+
+    @Test
+    void sizesFromExpectedInsertionsAndRate() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.001);
+
+        // ~14.4 bits per entry and 10 hashes for 0.1%
+        assertThat(filter.bitCount()).isBetween(14_300_000L, 14_500_000L);
+        assertThat(filter.hashCount()).isEqualTo(10);
+        assertThat(filter.estimatedFpp()).isZero();
+    }
+
+    @Test
+    void neverReportsAnInsertedPhoneAsMissing() {
+        BloomFilter filter = new BloomFilter(200_000, 0.001);
+        for (int i = 0; i < 200_000; i++) {
+            filter.put(SyntheticTeachers.phone(i));
+        }
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(filter.mightContain(SyntheticTeachers.phone(i))).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        int n = 200_000;
+        BloomFilter filter = new BloomFilter(n, 0.001);
+        for (int i = 0; i < n; i++) {
+            filter.put(SyntheticTeachers.phone(i));
+        }
+
+        // Same shape as real phones but a prefix the generator never uses
+        int probes = 1_000_000;
+        int hits = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("170" + String.format("%08d", i))) {
+                hits++;
+            }
+        }
+        double observed = (double) hits / probes;
+        assertThat(observed).isLessThan(0.002);
+        assertThat(filter.estimatedFpp()).isBetween(0.0005, 0.0015);
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(80_000, 0.001);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                futures.add(pool.submit(() -> {
+                    for (int i = offset; i < offset + 10_000; i++) {
+                        filter.put(SyntheticTeachers.phone(i));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < 80_000; i++) {
+            assertThat(filter.mightContain(SyntheticTeachers.phone(i))).isTrue();
+        }
+    }
+}
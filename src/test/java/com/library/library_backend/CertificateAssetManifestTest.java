@@ -0,0 +1,147 @@
+package com.library.library_backend;
+
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.service.BatchResolver;
+import com.library.library_backend.service.CertificateAssetManifest;
+import com.library.library_backend.service.LoginResponseAssembler;
+import com.library.library_backend.service.LongHashSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Asset manifest: ossutil listing and directory sources, incremental refresh, flags in the login payload
+class CertificateAssetManifestTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void longHashSetMatchesHashSet() {
+        Random random = new Random(1);
+        LongHashSet set = new LongHashSet(50_000);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long v = i == 0 ? 0 : random.nextLong();
+            assertThat(set.add(v)).isEqualTo(expected.add(v));
+        }
+        for (long v : expected) {
+            assertThat(set.contains(v)).isTrue();
+        }
+        for (int i = 0; i < 50_000; i++) {
+            long v = random.nextLong();
+            assertThat(set.contains(v)).isEqualTo(expected.contains(v));
+        }
+        assertThat(set.size()).isEqualTo(expected.size());
+
+        LongHashSet grown = set.with(new long[]{42L, 43L}, 2);
+        assertThat(grown.contains(42L)).isTrue();
+        assertThat(set.contains(42L)).isEqualTo(expected.contains(42L));
+    }
+
+    @Test
+    void listingFileLoadsAndAppendsIncrementally() throws Exception {
+        Path listing = dir.resolve("oss-listing.txt");
+        Files.writeString(listing, """
+                LastModifiedTime                   Size(B)  StorageClass   ETAG                                  ObjectName
+                2024-05-01 10:00:00 +0800 CST        12345      Standard   0123456789ABCDEF0123456789ABCDEF      oss://yangteam-files/preview/9_370702199001010011_img.png
+                2024-05-01 10:00:01 +0800 CST        54321      Standard   0123456789ABCDEF0123456789ABCDEF      oss://yangteam-files/certs/9_370702199001010011_pdf.pdf
+                2024-05-01 10:00:02 +0800 CST            0      Standard   0123456789ABCDEF0123456789ABCDEF      oss://yangteam-files/preview/
+                preview/8_370702199001010022_img.png
+                Object Number is: 3
+                """);
+        CertificateAssetManifest manifest = new CertificateAssetManifest(listing.toString(), "");
+
+        assertThat(manifest.contains("preview/9_370702199001010011_img.png")).isTrue(); // not loaded yet
+        manifest.reload();
+        assertThat(manifest.size()).isEqualTo(3);
+        assertThat(manifest.contains("preview/9_370702199001010011_img.png")).isTrue();
+        assertThat(manifest.contains("certs/9_370702199001010011_pdf.pdf")).isTrue();
+        assertThat(manifest.contains("preview/8_370702199001010022_img.png")).isTrue();
+        assertThat(manifest.contains("certs/8_370702199001010022_pdf.pdf")).isFalse();
+
+        // Appended line plus a half-written one: only the complete line is taken
+        Files.writeString(listing, "certs/8_370702199001010022_pdf.pdf\npreview/7_3707", StandardOpenOption.APPEND);
+        manifest.refresh();
+        assertThat(manifest.contains("certs/8_370702199001010022_pdf.pdf")).isTrue();
+        assertThat(manifest.contains("preview/7_3707")).isFalse();
+        Files.writeString(listing, "02199001010033_img.png\n", StandardOpenOption.APPEND);
+        manifest.refresh();
+        assertThat(manifest.contains("preview/7_370702199001010033_img.png")).isTrue();
+        assertThat(manifest.size()).isEqualTo(5);
+
+        // Re-exported (shorter) listing: full reload drops what is gone
+        Files.writeString(listing, "preview/9_370702199001010011_img.png\n");
+        manifest.refresh();
+        assertThat(manifest.size()).isEqualTo(1);
+        assertThat(manifest.contains("certs/9_370702199001010011_pdf.pdf")).isFalse();
+    }
+
+    @Test
+    void directoryMirrorPicksUpNewFiles() throws Exception {
+        Files.createDirectories(dir.resolve("preview"));
+        Files.createDirectories(dir.resolve("certs"));
+        Files.writeString(dir.resolve("preview/9_370702199001010011_img.png"), "png");
+        CertificateAssetManifest manifest = new CertificateAssetManifest("", dir.toString());
+        manifest.reload();
+        assertThat(manifest.contains("preview/9_370702199001010011_img.png")).isTrue();
+        assertThat(manifest.contains("certs/9_370702199001010011_pdf.pdf")).isFalse();
+
+        Files.writeString(dir.resolve("certs/9_370702199001010011_pdf.pdf"), "pdf");
+        manifest.refresh();
+        assertThat(manifest.contains("certs/9_370702199001010011_pdf.pdf")).isTrue();
+        assertThat(manifest.size()).isEqualTo(2);
+    }
+
+    @Test
+    void directoryRefreshPicksUpFilesCopiedWithAnOldMtime() throws Exception {
+        Files.createDirectories(dir.resolve("preview"));
+        Files.writeString(dir.resolve("preview/9_370702199001010011_img.png"), "png");
+        CertificateAssetManifest manifest = new CertificateAssetManifest("", dir.toString());
+        manifest.reload();
+
+        // cp -p / rsync -t keep the source timestamp, which predates the last scan
+        Path copied = dir.resolve("preview/9_370702199001010012_img.png");
+        Files.writeString(copied, "png");
+        Files.setLastModifiedTime(copied, FileTime.fromMillis(System.currentTimeMillis() - 86_400_000L));
+        manifest.refresh();
+        assertThat(manifest.contains("preview/9_370702199001010012_img.png")).isTrue();
+        assertThat(manifest.size()).isEqualTo(2);
+    }
+
+    @Test
+    void loginItemCarriesAvailabilityFlags() throws Exception {
+        Path listing = dir.resolve("oss-listing.txt");
+        Files.writeString(listing, "preview/9_370702199001010011_img.png\n");
+        CertificateAssetManifest manifest = new CertificateAssetManifest(listing.toString(), "");
+        manifest.reload();
+        LoginResponseAssembler assembler = new LoginResponseAssembler(mock(BatchResolver.class), "https://oss/", manifest);
+
+        TeacherLoginView view = new TeacherLoginView(1L, "张三", "13800000001", "370702199001010011",
+                null, null, null, null, "010011", "第9期", 9, null);
+        Map<String, Object> item = assembler.toItem(view);
+        assertThat(item.get("imgUrl")).isEqualTo("https://oss/preview/9_370702199001010011_img.png");
+        assertThat(item.get("imgAvailable")).isEqualTo(true);
+        assertThat(item.get("pdfAvailable")).isEqualTo(false);
+        assertThat(manifest.statsSnapshot()).containsEntry("missingPdf", 1L).containsEntry("missingImg", 0L);
+
+        BatchResolver resolver = mock(BatchResolver.class);
+        when(resolver.resolve("第8期")).thenReturn(8);
+        Map<String, Object> unknown = new LoginResponseAssembler(resolver, "https://oss/", new CertificateAssetManifest("", ""))
+                .toItem(new TeacherLoginView(2L, "李四", "13800000002", "370702199001010022",
+                        null, null, null, null, "010022", "第8期", null, null));
+        assertThat(List.of(unknown.get("imgAvailable"), unknown.get("pdfAvailable"))).containsOnly(true);
+    }
+}
@@ -0,0 +1,152 @@
+package com.library.library_backend;
+
+import com.library.library_backend.certificate.CertificateAssets;
+import com.library.library_backend.certificate.CertificateBatchRenderer;
+import com.library.library_backend.certificate.CertificateRenderer;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.service.CertificateAssetManifest;
+import com.library.library_backend.service.LoginResponseAssembler;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Renders one batch of certificates from generated templates: files, skip on re-run, missing template counted
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:certificates;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+class CertificateBatchRendererTest {
+
+    private static final List<String> CATEGORIES = List.of("潍坊市参培教师", "县区参培教师", "骨干教师");
+    private static final List<String> LEVELS = List.of("优秀", "良好", "合格");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoginResponseAssembler loginResponseAssembler;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rendersBatchInParallel() throws Exception {
+        Path resources = Files.createDirectories(dir.resolve("resources"));
+        for (String category : CATEGORIES) {
+            for (String level : LEVELS) {
+                if (!(category.equals("骨干教师") && level.equals("合格"))) {
+                    writeTemplate(resources.resolve(CertificateAssets.templateName(category, level)));
+                }
+            }
+        }
+        SyntheticTeachers.generate(new SyntheticTeachers.Spec(300, 0.3, 0.0, 11)).seed(jdbcTemplate);
+        long expectedMissing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_teacher WHERE teacherBatch = 9 AND teacherClas = '骨干教师' AND teacherLeve = '合格'", Long.class);
+
+        Path output = dir.resolve("out");
+        CertificateAssets assets = new CertificateAssets(resources.toString(), "SIMLI.TTF", "timesbd.ttf");
+        CertificateRenderer renderer = new CertificateRenderer(assets, loginResponseAssembler, "", 600, 0.9f);
+        CertificateAssetManifest manifest = new CertificateAssetManifest("", output.toString());
+        CertificateBatchRenderer batchRenderer = new CertificateBatchRenderer(jdbcTemplate, renderer, manifest, output.toString(), 40, 4);
+        try {
+            CertificateBatchRenderer.Progress first = batchRenderer.runNow(9, false);
+
+            assertThat(first.total()).isPositive();
+            assertThat(first.failed()).isEqualTo(expectedMissing);
+            assertThat(first.rendered()).isEqualTo(first.total() - expectedMissing);
+            if (expectedMissing > 0) {
+                assertThat(first.failures()).containsEntry("模板不存在: 骨干教师-合格.png", expectedMissing);
+            }
+            assertThat(countFiles(output.resolve("preview"), "_img.png")).isEqualTo(first.rendered());
+            assertThat(countFiles(output.resolve("certs"), "_pdf.pdf")).isEqualTo(first.rendered());
+
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT teacherIDCa FROM user_teacher "
+                    + "WHERE teacherBatch = 9 AND teacherClas <> '骨干教师' ORDER BY id LIMIT 1");
+            String idCard = (String) row.get("teacherIDCa");
+            BufferedImage preview = ImageIO.read(output.resolve(LoginResponseAssembler.imgKey("9", idCard)).toFile());
+            assertThat(preview.getWidth()).isEqualTo(600);
+            try (PDDocument pdf = Loader.loadPDF(output.resolve(LoginResponseAssembler.pdfKey("9", idCard)).toFile())) {
+                assertThat(pdf.getNumberOfPages()).isEqualTo(1);
+                assertThat(pdf.getPage(0).getMediaBox().getWidth()).isGreaterThan(pdf.getPage(0).getMediaBox().getHeight());
+            }
+            // The manifest over the output directory now knows the new files
+            assertThat(manifest.contains(LoginResponseAssembler.pdfKey("9", idCard))).isTrue();
+            assertThat(manifest.size()).isEqualTo(2 * first.rendered());
+
+            CertificateBatchRenderer.Progress second = batchRenderer.runNow(9, false);
+            assertThat(second.skipped()).isEqualTo(first.rendered());
+            assertThat(second.rendered()).isZero();
+        } finally {
+            batchRenderer.shutdown();
+        }
+    }
+
+    @Test
+    void rowsSharingAFileKeyRenderConcurrently() throws Exception {
+        Path resources = Files.createDirectories(dir.resolve("resources"));
+        writeTemplate(resources.resolve(CertificateAssets.templateName("潍坊市参培教师", "优秀")));
+        CertificateAssets assets = new CertificateAssets(resources.toString(), "SIMLI.TTF", "timesbd.ttf");
+        CertificateRenderer renderer = new CertificateRenderer(assets, loginResponseAssembler, "", 600, 0.9f);
+        Path output = dir.resolve("shared");
+        // Two rows with the same (batch, idCard) write the same two files at the same time
+        TeacherLoginView t = new TeacherLoginView(1L, "张三", "13800000001", "370702199001010011", "潍坊市参培教师",
+                "90", "WF2026", "优秀", null, "第9期", 9, null);
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> {
+                    renderer.renderToFiles(t, output);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        try (PDDocument pdf = Loader.loadPDF(output.resolve(LoginResponseAssembler.pdfKey("9", t.idCard())).toFile())) {
+            assertThat(pdf.getNumberOfPages()).isEqualTo(1);
+        }
+        assertThat(ImageIO.read(output.resolve(LoginResponseAssembler.imgKey("9", t.idCard())).toFile()).getWidth()).isEqualTo(600);
+        // No temp files left behind
+        try (Stream<Path> files = Files.walk(output)) {
+            assertThat(files.filter(f -> f.toString().endsWith(".tmp")).count()).isZero();
+        }
+    }
+
+    // Landscape A4 at 150 dpi with a border, like the real templates
+    private static void writeTemplate(Path file) throws Exception {
+        BufferedImage image = new BufferedImage(1754, 1240, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(250, 245, 230));
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setColor(new Color(180, 20, 20));
+        g.fillRect(40, 40, image.getWidth() - 80, 20);
+        g.dispose();
+        ImageIO.write(image, "png", file.toFile());
+    }
+
+    private static long countFiles(Path dir, String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.library.library_backend;
+
+import com.library.library_backend.certificate.CertificateZipExporter;
+import com.library.library_backend.service.LoginResponseAssembler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Streams one batch as a STORED zip: every present file once with its exact bytes, missing files listed at the end
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:certificateExport;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+class CertificateZipExporterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoginResponseAssembler loginResponseAssembler;
+
+    @TempDir
+    Path storage;
+
+    @Test
+    void streamsBatchAsZip() throws Exception {
+        SyntheticTeachers.generate(new SyntheticTeachers.Spec(300, 0.3, 0.0, 17)).seed(jdbcTemplate);
+        List<String> idCards = jdbcTemplate.queryForList(
+                "SELECT teacherIDCa FROM user_teacher WHERE teacherBatch = 9 ORDER BY id", String.class);
+        Set<String> distinct = new LinkedHashSet<>(idCards);
+
+        // Every third certificate has not been rendered yet
+        Map<String, byte[]> present = new HashMap<>();
+        int i = 0;
+        for (String idCard : distinct) {
+            if (i++ % 3 == 2) {
+                continue;
+            }
+            byte[] content = ("%PDF fake certificate " + idCard).repeat(i % 50 + 1).getBytes(StandardCharsets.UTF_8);
+            Path file = storage.resolve(LoginResponseAssembler.pdfKey("9", idCard));
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+            present.put(idCard, content);
+        }
+        long expectedMissing = distinct.size() - present.size();
+
+        CertificateZipExporter exporter = new CertificateZipExporter(jdbcTemplate, loginResponseAssembler,
+                storage.toString(), 40, 1);
+        CertificateZipExporter.Selection selection = new CertificateZipExporter.Selection(9, null, null, true, false);
+        assertThat(exporter.count(selection)).isEqualTo(idCards.size());
+        assertThat(selection.fileName()).isEqualTo("证书_第9期.zip");
+
+        assertThat(exporter.tryAcquire()).isTrue();
+        assertThat(exporter.tryAcquire()).isFalse();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CertificateZipExporter.ExportResult result;
+        try {
+            result = exporter.write(selection, out);
+        } finally {
+            exporter.release();
+        }
+        System.out.println("Export: " + result + ", zip " + out.size() + " bytes");
+
+        assertThat(result.rows()).isEqualTo(idCards.size());
+        assertThat(result.entries()).isEqualTo(present.size());
+        assertThat(result.missing()).isEqualTo(expectedMissing);
+
+        // ZipInputStream checks sizes and CRCs of STORED entries while reading
+        Map<String, byte[]> entries = new HashMap<>();
+        String missingList = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+                byte[] content = zip.readAllBytes();
+                if (entry.getName().equals("缺失文件.txt")) {
+                    missingList = new String(content, StandardCharsets.UTF_8);
+                } else {
+                    assertThat(entry.getName()).startsWith("第9期/").endsWith(".pdf");
+                    entries.put(entry.getName(), content);
+                }
+            }
+        }
+        assertThat(entries).hasSize(present.size());
+        for (Map.Entry<String, byte[]> e : present.entrySet()) {
+            byte[] zipped = entries.entrySet().stream()
+                    .filter(z -> z.getKey().endsWith("_" + e.getKey() + ".pdf"))
+                    .map(Map.Entry::getValue).findFirst().orElseThrow();
+            assertThat(zipped).isEqualTo(e.getValue());
+        }
+        assertThat(missingList).isNotNull();
+        assertThat(missingList.lines().count()).isEqualTo(expectedMissing);
+        assertThat(missingList).startsWith("certs/9_");
+
+        // No matching rows: nothing to export
+        assertThat(exporter.count(new CertificateZipExporter.Selection(5, null, null, true, false))).isZero();
+        assertThat(new CertificateZipExporter.Selection(null, " ", null, true, true).isEmpty()).isTrue();
+    }
+}
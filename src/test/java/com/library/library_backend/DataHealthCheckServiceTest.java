@@ -0,0 +1,46 @@
+package com.library.library_backend;
+
+import com.library.library_backend.entity.HealthCheckReport;
+import com.library.library_backend.repository.HealthCheckReportRepository;
+import com.library.library_backend.service.DataHealthCheckService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// DataHealthCheckService: a failure message longer than the VARCHAR(255) column is cut so the FAILED report can be saved
+class DataHealthCheckServiceTest {
+
+    @Test
+    void longFailureMessageIsTruncatedToTheColumnWidth() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rows = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rows);
+        when(rows.next()).thenReturn(true);
+        // e.g. a driver/conversion error that embeds the offending value
+        when(rows.getString(anyInt())).thenThrow(new IllegalStateException("x".repeat(1000)));
+        HealthCheckReportRepository repository = mock(HealthCheckReportRepository.class);
+        when(repository.save(any(HealthCheckReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DataHealthCheckService service = new DataHealthCheckService(dataSource, repository, mock(AsyncTaskExecutor.class), 100);
+        HealthCheckReport report = service.runNow();
+
+        assertThat(report.getStatus()).isEqualTo("FAILED");
+        assertThat(report.getErrorMessage()).hasSize(255);
+        assertThat(service.isRunning()).isFalse();
+    }
+}
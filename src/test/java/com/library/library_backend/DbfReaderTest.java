@@ -0,0 +1,124 @@
+package com.library.library_backend;
+
+import com.library.library_backend.importer.DbfReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reads a small hand-written dBase III file (GBK text, a deleted record, seek for resume)
+class DbfReaderTest {
+
+    static final Charset GBK = Charset.forName("GBK");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsRecordsInOrder() throws IOException {
+        Path file = write(dir.resolve("t.dbf"), List.of("teacherReal", "teacherTel", "teacherSes"), new int[]{20, 11, 30}, List.of(
+                new String[]{"张三", "13800000001", "第9期"},
+                new String[]{"*", "李四", "13800000002", "第8期"},
+                new String[]{"王五", null, "第7期"}));
+
+        try (DbfReader reader = new DbfReader(file, GBK, 2)) {
+            assertThat(reader.recordCount()).isEqualTo(3);
+            // Field names are cut to 10 characters by the format
+            assertThat(reader.fields()).extracting(DbfReader.Field::name).containsExactly("teacherRea", "teacherTel", "teacherSes");
+
+            DbfReader.Record first = reader.next();
+            assertThat(first.deleted()).isFalse();
+            assertThat(first.values()).containsExactly("张三", "13800000001", "第9期");
+
+            DbfReader.Record second = reader.next();
+            assertThat(second.deleted()).isTrue();
+            assertThat(second.values()[0]).isEqualTo("李四");
+
+            DbfReader.Record third = reader.next();
+            assertThat(third.index()).isEqualTo(2);
+            assertThat(third.values()[1]).isNull();
+
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void seeksToRecord() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(new String[]{"教师" + i, String.format("138%08d", i)});
+        }
+        Path file = write(dir.resolve("s.dbf"), List.of("teacherReal", "teacherTel"), new int[]{20, 11}, rows);
+
+        try (DbfReader reader = new DbfReader(file, GBK, 8)) {
+            reader.seek(37);
+            DbfReader.Record record = reader.next();
+            assertThat(record.index()).isEqualTo(37);
+            assertThat(record.values()).containsExactly("教师37", "13800000037");
+
+            int remaining = 1;
+            while (reader.next() != null) {
+                remaining++;
+            }
+            assertThat(remaining).isEqualTo(13);
+        }
+    }
+
+    /**
+     * Writes a minimal dBase III file with character fields only. A row whose first
+     * element is "*" is written as a deleted record (the marker itself is not a value).
+     */
+    static Path write(Path file, List<String> names, int[] lengths, List<String[]> rows) throws IOException {
+        int recordLength = 1;
+        for (int length : lengths) {
+            recordLength += length;
+        }
+        int headerLength = 32 + 32 * names.size() + 1;
+
+        ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        header.put((byte) 0x03).put((byte) 124).put((byte) 1).put((byte) 1);
+        header.putInt(rows.size());
+        header.putShort((short) headerLength);
+        header.putShort((short) recordLength);
+        header.position(32);
+        for (int i = 0; i < names.size(); i++) {
+            byte[] descriptor = new byte[32];
+            byte[] name = names.get(i).getBytes(GBK);
+            System.arraycopy(name, 0, descriptor, 0, Math.min(10, name.length));
+            descriptor[11] = 'C';
+            descriptor[16] = (byte) lengths[i];
+            header.put(descriptor);
+        }
+        header.put((byte) 0x0D);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(header.array());
+        for (String[] row : rows) {
+            boolean deleted = row.length > names.size() && "*".equals(row[0]);
+            out.write(deleted ? '*' : ' ');
+            for (int i = 0; i < names.size(); i++) {
+                String value = row[deleted ? i + 1 : i];
+                byte[] field = new byte[lengths[i]];
+                Arrays.fill(field, (byte) ' ');
+                if (value != null) {
+                    byte[] bytes = value.getBytes(GBK);
+                    System.arraycopy(bytes, 0, field, 0, Math.min(bytes.length, field.length));
+                }
+                out.write(field);
+            }
+        }
+        out.write(0x1A);
+        return Files.write(file, out.toByteArray());
+    }
+}
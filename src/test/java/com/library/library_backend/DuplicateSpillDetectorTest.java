@@ -0,0 +1,43 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.DuplicateSpillDetector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateSpillDetectorTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void findsDuplicatesAcrossPartitions() throws Exception {
+        Map<String, List<Long>> duplicates = new TreeMap<>();
+        long groups;
+        try (DuplicateSpillDetector detector = new DuplicateSpillDetector(tmp, "test", 8)) {
+            for (long id = 1; id <= 10_000; id++) {
+                detector.add("138" + String.format("%08d", id), id);
+            }
+            detector.add("13800000007", 20_001);
+            detector.add("13800000007", 20_002);
+            detector.add("13800009999", 20_003);
+
+            groups = detector.forEachDuplicate(duplicates::put);
+        }
+
+        assertThat(groups).isEqualTo(2);
+        assertThat(duplicates.get("13800000007")).containsExactlyInAnyOrder(7L, 20_001L, 20_002L);
+        assertThat(duplicates.get("13800009999")).containsExactlyInAnyOrder(9_999L, 20_003L);
+        // Spill files are removed on close
+        try (var files = Files.list(tmp)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.PhoneBloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Local load test: same /teacher/login workload against the platform-thread and the
+ * virtual-thread execution mode, both on an embedded H2 database with a small pool
+ * (the DB gate is sized to it). Prints throughput and latency percentiles for comparison.
+ */
+class ExecutionModeLoadTest {
+
+    private static final int PHONES = 2_000;
+    private static final int REQUESTS = 3_000;
+    private static final int CONCURRENCY = 300;
+    private static final int POOL_SIZE = 4;
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(SyntheticTeachers.Spec.of(PHONES));
+        LoadHarness.Result platform = run(false, data);
+        LoadHarness.Result virtual = run(true, data);
+
+        LoadHarness.print("EXECUTION MODE LOAD TEST", String.format("Workload: %d logins, %d concurrent clients, %d phones, Hikari pool %d",
+                REQUESTS, CONCURRENCY, PHONES, POOL_SIZE), List.of(platform, virtual));
+
+        assertThat(platform.failed()).isZero();
+        assertThat(virtual.failed()).isZero();
+    }
+
+    private LoadHarness.Result run(boolean virtualThreads, SyntheticTeachers data) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:mode-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                // Cache off: every login must go through the gate to the database
+                "--app.cache.login.max-size=0")) {
+
+            data.seed(ctx.getBean(JdbcTemplate.class));
+            // Seeding goes around JPA, so the phone filter has to be rebuilt by hand
+            ctx.getBean(PhoneBloomFilter.class).rebuild();
+            int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+            List<SyntheticTeachers.Person> people = data.people();
+            return new LoadHarness(REQUESTS, CONCURRENCY).run(mode,
+                    LoadHarness.postJson(URI.create("http://localhost:" + port + "/teacher/login"), i -> {
+                        SyntheticTeachers.Person p = people.get(i % people.size());
+                        return "{\"phone\":\"" + p.phone() + "\",\"password\":\"" + p.password() + "\"}";
+                    }));
+        }
+    }
+}
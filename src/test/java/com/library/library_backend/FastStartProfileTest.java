@@ -0,0 +1,79 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.PhoneBloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// faststart profile: lazy non-critical beans, login path and scheduled jobs still eager, startup timing report
+class FastStartProfileTest {
+
+    @Test
+    void lazyStartupWithTimingReport() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(50, 0.0, 0.0, 13));
+        SyntheticTeachers.Person person = data.people().get(0);
+
+        // faststart sets ddl-auto: none; an in-memory H2 has no schema yet, so create it here
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(LibraryBackendApplication.STARTUP_STEPS))
+                .run("--spring.profiles.active=loadtest,faststart",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:faststart;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop")) {
+
+            assertThat(ctx.getEnvironment().getProperty("spring.main.lazy-initialization")).isEqualTo("true");
+            assertThat(ctx.getEnvironment().getProperty("app.query-plan.mode")).isEqualTo("off");
+            ConfigurableListableBeanFactory beans = ctx.getBeanFactory();
+            // Login path is ready before the first request; @Scheduled beans exist so their jobs are registered
+            assertThat(beans.containsSingleton("teacherController")).isTrue();
+            assertThat(beans.containsSingleton("loginRateLimiter")).isTrue();
+            assertThat(beans.containsSingleton("passwordMigrationJob")).isTrue();
+            assertThat(beans.containsSingleton("dataHealthCheckService")).isTrue();
+            // Ops-only beans wait for their first use
+            assertThat(beans.containsSingleton("adminDiagnosticsController")).isFalse();
+            assertThat(beans.containsSingleton("certificateZipExporter")).isFalse();
+
+            data.seed(ctx.getBean(JdbcTemplate.class));
+            ctx.getBean(PhoneBloomFilter.class).rebuild();
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newHttpClient();
+            HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(base + "/teacher/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"phone\":\"" + person.phone() + "\",\"password\":\"" + person.password() + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(login.statusCode()).isEqualTo(200);
+
+            HttpResponse<String> startup = http.send(HttpRequest.newBuilder(URI.create(base + "/admin/startup"))
+                    .header("X-Admin-Key", "loadtest-admin").GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(startup.statusCode()).isEqualTo(200);
+            assertThat(beans.containsSingleton("adminDiagnosticsController")).isTrue();
+            JsonNode report = JsonMapper.builder().build().readTree(startup.body());
+            System.out.println("Startup report: " + report);
+            assertThat(report.get("available").asBoolean()).isTrue();
+            assertThat(report.get("readyMs").asLong()).isPositive();
+            assertThat(report.get("beansCreated").asInt()).isPositive();
+            assertThat(report.get("phases").has("spring.context.refresh")).isTrue();
+            JsonNode slowest = report.get("slowestBeans");
+            assertThat(slowest).hasSize(15);
+            for (int i = 0; i < slowest.size(); i++) {
+                JsonNode bean = slowest.get(i);
+                assertThat(bean.get("selfMs").asDouble()).isLessThanOrEqualTo(bean.get("totalMs").asDouble());
+                if (i > 0) {
+                    assertThat(bean.get("selfMs").asDouble()).isLessThanOrEqualTo(slowest.get(i - 1).get("selfMs").asDouble());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.library.library_backend;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load driver: {@code concurrency} virtual-thread clients send requests
+ * back to back until {@code requests} have been sent. Records per-request latency and
+ * counts every non-2xx response or I/O error as a failure.
+ */
+final class LoadHarness {
+
+    record Result(String name, int ok, int failed, double seconds, long[] latenciesNanos) {
+
+        double throughput() {
+            return (ok + failed) / seconds;
+        }
+
+        double percentileMs(double p) {
+            int idx = (int) Math.ceil(p / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, idx)] / 1_000_000.0;
+        }
+    }
+
+    private final int requests;
+    private final int concurrency;
+
+    LoadHarness(int requests, int concurrency) {
+        this.requests = requests;
+        this.concurrency = concurrency;
+    }
+
+    // JSON POST to the given endpoint; body(i) builds the payload of the i-th request
+    static IntFunction<HttpRequest> postJson(URI uri, IntFunction<String> body) {
+        return i -> HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.apply(i)))
+                .build();
+    }
+
+    Result run(String name, IntFunction<HttpRequest> requestFor) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = requestFor.apply(i);
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 != 2) {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+            return new Result(name, requests - failed.get(), failed.get(), seconds, latencies);
+        }
+    }
+
+    static void print(String title, String workload, List<Result> results) {
+        System.out.println("\n================ [" + title + "] ================");
+        System.out.println(workload);
+        System.out.println(String.format("%-14s %10s %8s %10s %10s %10s", "run", "req/s", "failed", "p50(ms)", "p95(ms)", "p99(ms)"));
+        for (Result r : results) {
+            System.out.println(String.format("%-14s %10.0f %8d %10.2f %10.2f %10.2f", r.name(), r.throughput(), r.failed(),
+                    r.percentileMs(50), r.percentileMs(95), r.percentileMs(99)));
+        }
+        System.out.println("============================================================");
+    }
+}
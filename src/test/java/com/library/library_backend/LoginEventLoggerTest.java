@@ -0,0 +1,51 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.LoginEventLogger;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Buffer overflow, sampling and shutdown flushing of the async login-event logger
+class LoginEventLoggerTest {
+
+    @Test
+    void dropsWhenBufferIsFullInsteadOfBlocking() throws Exception {
+        LoginEventLogger logger = new LoginEventLogger(JsonMapper.builder().build(), 4, 1.0, "");
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            logger.log(LoginEventLogger.LOGIN_FAILED, "13800000000", 1, start, "BAD_PASSWORD");
+        }
+        Map<String, Object> stats = logger.statsSnapshot();
+        System.out.println("login-log stats: " + stats);
+
+        assertThat(logger.droppedCount()).isPositive();
+        assertThat((long) stats.get("published") + logger.droppedCount()).isEqualTo(10_000);
+
+        logger.shutdown();
+        assertThat(logger.bufferedCount()).isZero();
+        assertThat(logger.statsSnapshot().get("written")).isEqualTo(stats.get("published"));
+    }
+
+    @Test
+    void samplesPerEventType() throws Exception {
+        LoginEventLogger logger = new LoginEventLogger(JsonMapper.builder().build(), 1024, 1.0, "LOGIN_SUCCESS=0");
+        for (int i = 0; i < 100; i++) {
+            assertThat(logger.sampled(LoginEventLogger.LOGIN_SUCCESS)).isFalse();
+            assertThat(logger.sampled(LoginEventLogger.LOGIN_FAILED)).isTrue();
+        }
+        logger.setSampleRate(LoginEventLogger.LOGIN_SUCCESS, 1.0);
+        assertThat(logger.sampled(LoginEventLogger.LOGIN_SUCCESS)).isTrue();
+        assertThat(logger.statsSnapshot().get("sampledOut")).isEqualTo(100L);
+        logger.shutdown();
+    }
+
+    @Test
+    void masksPhone() {
+        assertThat(LoginEventLogger.mask(" 13812345678")).isEqualTo("138****5678");
+        assertThat(LoginEventLogger.mask("123")).isEqualTo("***");
+        assertThat(LoginEventLogger.mask(null)).isNull();
+    }
+}
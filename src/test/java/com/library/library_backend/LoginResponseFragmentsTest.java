@@ -0,0 +1,86 @@
+package com.library.library_backend;
+
+import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.LoginResponseAssembler;
+import com.library.library_backend.service.LoginResponseFragments;
+import com.library.library_backend.service.TeacherLookupCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pre-encoded login fragments: same JSON as the map-based assembly, reused until the entity changes
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fragments;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+class LoginResponseFragmentsTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeacherLookupCache teacherLookupCache;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private LoginResponseFragments loginResponseFragments;
+
+    @Autowired
+    private LoginResponseAssembler loginResponseAssembler;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void splicesCachedFragments() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(100, 1.0, 0.0, 5));
+        data.seed(jdbcTemplate);
+        String phone = data.people().get(0).phone();
+
+        List<TeacherLoginView> teachers = teacherLookupCache.findAllByPhone(phone);
+        assertThat(teachers).hasSizeGreaterThan(1);
+        LoginResponseFragments.Fragments fragments = loginResponseFragments.forPhone(phone, teachers);
+        assertThat(loginResponseFragments.forPhone(phone, teachers)).isSameAs(fragments);
+
+        // The spliced body parses and carries exactly what the map-based assembly produced
+        LoginResponseFragments.SplicedJson body = loginResponseFragments.loginBody(fragments, "a.b.c", 7200);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(body.toByteArray()).hasSize((int) body.contentLength());
+        JsonNode json = jsonMapper.readTree(out.toByteArray());
+        assertThat(json.get("code").asInt()).isEqualTo(200);
+        assertThat(json.get("token").asString()).isEqualTo("a.b.c");
+        assertThat(json.get("expiresIn").asLong()).isEqualTo(7200);
+        assertThat(json.get("userList")).hasSize(teachers.size());
+        for (int i = 0; i < teachers.size(); i++) {
+            assertThat(json.get("userList").get(i))
+                    .isEqualTo(jsonMapper.readTree(jsonMapper.writeValueAsBytes(loginResponseAssembler.toItem(teachers.get(i)))));
+            assertThat(fragments.batches()[i]).isEqualTo(loginResponseAssembler.batchOf(teachers.get(i)));
+        }
+
+        // Saving the entity invalidates the lookup cache, so the next login re-encodes from the new row
+        Teacher teacher = teacherRepository.findAllByPhone(phone).get(0);
+        teacher.setScore("99");
+        teacherRepository.save(teacher);
+        List<TeacherLoginView> reloaded = teacherLookupCache.findAllByPhone(phone);
+        LoginResponseFragments.Fragments updated = loginResponseFragments.forPhone(phone, reloaded);
+        assertThat(updated).isNotSameAs(fragments);
+        assertThat(new String(loginResponseFragments.loginBody(updated, "t", 1).toByteArray(), "UTF-8"))
+                .contains("\"score\":\"99\"");
+
+        // No records: still a valid document
+        LoginResponseFragments.Fragments none = loginResponseFragments.forPhone("19900000000", List.of());
+        assertThat(jsonMapper.readTree(loginResponseFragments.loginBody(none, "t", 1).toByteArray()).get("userList")).isEmpty();
+    }
+}
@@ -2,6 +2,7 @@ package com.library.library_backend;
 
 import com.library.library_backend.entity.Teacher;
 import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.BatchResolver;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,6 +15,10 @@ class MultiBatchDiagnosisTest {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    // Same resolver the controller and the import/backfill jobs use
+    @Autowired
+    private BatchResolver batchResolver;
+
     // 🔥 TARGET PHONE NUMBER (Change this if needed) 🔥
     private final String TEST_PHONE = "18952102668"; 
 
@@ -43,21 +48,15 @@ class MultiBatchDiagnosisTest {
             System.out.println("   Raw Sessions: [" + t.getSessions() + "]");
             System.out.println("   ID Card     : [" + t.getIdCard() + "]");
 
-            // 2. Simulate Controller Batch Logic
-            String batch = "7"; // Default
-            String logicSource = "Default";
-
-            if (t.getSessions() != null) {
-                if (t.getSessions().contains("8")) {
-                    batch = "8";
-                    logicSource = "Matched '8'";
-                } else if (t.getSessions().contains("7")) {
-                    batch = "7";
-                    logicSource = "Matched '7'";
-                }
-            }
+            // 2. Compare stored batch with a fresh resolution of the raw sessions text
+            String batch = getBatch(t);
+            String resolved = String.valueOf(batchResolver.resolve(t.getSessions()));
+            String logicSource = t.getBatch() != null ? "Stored teacherBatch" : "Resolved (not backfilled yet)";
 
             System.out.println("   Computed Batch: " + batch + " (Source: " + logicSource + ")");
+            if (!batch.equals(resolved)) {
+                System.err.println("   WARNING: Stored batch differs from resolver result [" + resolved + "]. Run /admin/batches/backfill?all=true");
+            }
 
             // 3. Generate URL
             String imgUrl = OSS_BASE_URL + "preview/" + batch + "_" + t.getIdCard() + "_img.png";
@@ -85,10 +84,6 @@ class MultiBatchDiagnosisTest {
     }
 
     private String getBatch(Teacher t) {
-        if (t.getSessions() != null) {
-            if (t.getSessions().contains("8")) return "8";
-            if (t.getSessions().contains("7")) return "7";
-        }
-        return "7";
+        return String.valueOf(t.getBatch() != null ? t.getBatch() : batchResolver.resolve(t.getSessions()));
     }
 }
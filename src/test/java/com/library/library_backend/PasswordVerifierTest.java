@@ -0,0 +1,207 @@
+package com.library.library_backend;
+
+import com.library.library_backend.controller.TeacherController;
+import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.PasswordHashes;
+import com.library.library_backend.service.PasswordMigrationJob;
+import com.library.library_backend.service.PasswordVerifier;
+import com.library.library_backend.service.PasswordVerifierBusyException;
+import com.library.library_backend.service.PhoneBloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// PBKDF2 login passwords: format, verifier cache and backpressure, online migration of plaintext rows
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:passwords;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.password.iterations=1000", "app.password.migration.on-startup=false",
+        "app.password.migration.chunk-size=50", "app.password.migration.pause-between-chunks=0ms"})
+@ActiveProfiles("loadtest")
+class PasswordVerifierTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordMigrationJob passwordMigrationJob;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private TeacherController teacherController;
+
+    @Autowired
+    private PhoneBloomFilter phoneBloomFilter;
+
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Test
+    void hashFormat() {
+        String hash = PasswordHashes.hash("010011", 1000);
+        assertThat(hash).startsWith("pbkdf2_sha256$1000$");
+        assertThat(PasswordHashes.iterations(hash)).isEqualTo(1000);
+        assertThat(PasswordHashes.verify(hash, "010011")).isTrue();
+        assertThat(PasswordHashes.verify(hash, "010012")).isFalse();
+        // Salted: the same password never hashes the same way twice
+        assertThat(PasswordHashes.hash("010011", 1000)).isNotEqualTo(hash);
+        assertThat(PasswordHashes.verify("010011", "010011")).isFalse();
+        assertThat(PasswordHashes.verify("pbkdf2_sha256$x$y", "010011")).isFalse();
+        assertThat(PasswordHashes.iterations(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void verifiesAndCachesRecentSuccesses() {
+        PasswordVerifier verifier = new PasswordVerifier(true, 1000, 2, 16, Duration.ofSeconds(5), 1000, Duration.ofMinutes(1));
+        try {
+            String hash = PasswordHashes.hash("010011", 1000);
+            List<TeacherLoginView> hashed = List.of(view("13800000001", "010011", hash), view("13800000001", "010011", hash));
+            List<TeacherLoginView> plain = List.of(view("13800000002", "020022", null));
+
+            assertThat(verifier.matches("13800000002", plain, "020022")).isTrue();
+            assertThat(verifier.matches("13800000002", plain, "020023")).isFalse();
+            assertThat(verifier.hashCheckCount()).isZero();
+
+            assertThat(verifier.matches("13800000001", hashed, "010011")).isTrue();
+            // Rows of one phone share the hash, so it is checked once
+            assertThat(verifier.hashCheckCount()).isEqualTo(1);
+            assertThat(verifier.matches("13800000001", hashed, "010011")).isTrue();
+            assertThat(verifier.cacheHitCount()).isEqualTo(1);
+            assertThat(verifier.hashCheckCount()).isEqualTo(1);
+
+            // Wrong passwords are never cached; a new hash (password changed) bypasses the cached entry
+            assertThat(verifier.matches("13800000001", hashed, "010012")).isFalse();
+            List<TeacherLoginView> rehashed = List.of(view("13800000001", "010011", PasswordHashes.hash("010011", 1000)));
+            assertThat(verifier.matches("13800000001", rehashed, "010011")).isTrue();
+            assertThat(verifier.cacheHitCount()).isEqualTo(1);
+            assertThat(verifier.hashCheckCount()).isEqualTo(3);
+
+            // Hashing switched off: hashed rows carry no plaintext in the projection, so existing hashes still verify
+            PasswordVerifier off = new PasswordVerifier(false, 1000, 1, 1, Duration.ofSeconds(5), 10, Duration.ofMinutes(1));
+            List<TeacherLoginView> hashOnly = List.of(view("13800000001", null, hash));
+            assertThat(off.matches("13800000001", hashOnly, "010011")).isTrue();
+            assertThat(off.matches("13800000002", plain, "020022")).isTrue();
+            assertThat(off.hashCheckCount()).isEqualTo(1);
+            off.shutdown();
+        } finally {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenThePoolIsSaturated() throws Exception {
+        // One slow worker, one queue slot, short wait: a burst must fail fast with 503, not pile up
+        PasswordVerifier verifier = new PasswordVerifier(true, 1000, 1, 1, Duration.ofMillis(50), 1000, Duration.ofMinutes(1));
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<TeacherLoginView> slow = List.of(view("13800000003", "030033", PasswordHashes.hash("030033", 3_000_000)));
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(clients.submit(() -> verifier.matches("13800000003", slow, "030033")));
+            }
+            int busy = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    result.get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(PasswordVerifierBusyException.class);
+                    busy++;
+                }
+            }
+            assertThat(busy).isEqualTo(6);
+            assertThat(verifier.rejectedCount()).isEqualTo(6);
+            assertThat((Long) verifier.statsSnapshot().get("rejected")).isPositive();
+        } finally {
+            clients.shutdownNow();
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void migratesPlaintextRowsOnline() {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(120, 0.4, 0.0, 23));
+        data.seed(jdbcTemplate);
+        phoneBloomFilter.rebuild();
+        SyntheticTeachers.Person person = data.people().get(7);
+        // A row without a phone must still be visited (keyset pages by id only)
+        jdbcTemplate.update("INSERT INTO user_teacher (teacherReal, teacherTel, teacherIDNu) VALUES ('无号码', NULL, '070077')");
+
+        // Before migration the plaintext still logs in
+        assertThat(login(person.phone(), person.password()).getStatusCode().value()).isEqualTo(200);
+
+        PasswordMigrationJob.MigrationResult result = passwordMigrationJob.run(false);
+        assertThat(result.updated()).isEqualTo(data.rowCount() + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_teacher WHERE teacherPwdHash IS NULL", Long.class)).isZero();
+        // Multi-batch rows of one phone got one shared hash, even across chunks
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT teacherPwdHash) FROM user_teacher WHERE teacherTel = ?",
+                Long.class, person.phone())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT teacherTel FROM user_teacher WHERE teacherTel IS NOT NULL "
+                + "GROUP BY teacherTel, teacherIDNu HAVING COUNT(DISTINCT teacherPwdHash) > 1) t", Long.class)).isZero();
+        assertThat(passwordMigrationJob.run(false).scanned()).isZero();
+
+        // Hashed rows no longer carry the plaintext into the login projection / cache
+        assertThat(teacherRepository.findLoginViewsByPhone(person.phone()))
+                .allSatisfy(v -> assertThat(v.password()).isNull())
+                .allSatisfy(v -> assertThat(v.passwordHash()).isNotNull());
+
+        // Logins of phones not cached yet now go through the hash
+        SyntheticTeachers.Person other = data.people().get(11);
+        assertThat(login(other.phone(), other.password()).getStatusCode().value()).isEqualTo(200);
+        assertThat(login(other.phone(), "999999").getStatusCode().value()).isEqualTo(401);
+        assertThat(passwordVerifier.hashCheckCount()).isEqualTo(2);
+
+        // JPA writes never run PBKDF2: a new or changed password clears the hash and the next migration fills it
+        Teacher teacher = new Teacher();
+        teacher.setName("赵六");
+        teacher.setPhone("13911112222");
+        teacher.setIdCard("370702199505050055");
+        teacher.setPassword("050055");
+        teacher.setSessions("第9期");
+        teacher = teacherRepository.save(teacher);
+        assertThat(teacher.getPasswordHash()).isNull();
+        assertThat(passwordMigrationJob.run(false).updated()).isEqualTo(1);
+        String first = hashOf(teacher.getId());
+        assertThat(PasswordHashes.verify(first, "050055")).isTrue();
+
+        teacher = teacherRepository.findById(teacher.getId()).orElseThrow();
+        teacher.setScore("90");
+        teacherRepository.save(teacher);
+        assertThat(hashOf(teacher.getId())).isEqualTo(first);
+
+        teacher = teacherRepository.findById(teacher.getId()).orElseThrow();
+        teacher.setPassword("050056");
+        teacherRepository.save(teacher);
+        assertThat(hashOf(teacher.getId())).isNull();
+        assertThat(login("13911112222", "050056").getStatusCode().value()).isEqualTo(200);
+        assertThat(login("13911112222", "050055").getStatusCode().value()).isEqualTo(401);
+        assertThat(passwordMigrationJob.run(false).updated()).isEqualTo(1);
+        assertThat(PasswordHashes.verify(hashOf(teacher.getId()), "050056")).isTrue();
+    }
+
+    private String hashOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT teacherPwdHash FROM user_teacher WHERE id = ?", String.class, id);
+    }
+
+    private org.springframework.http.ResponseEntity<?> login(String phone, String password) {
+        return teacherController.login(Map.of("phone", phone, "password", password));
+    }
+
+    private static TeacherLoginView view(String phone, String password, String hash) {
+        return new TeacherLoginView(1L, "张三", phone, "370702199001010011", null, null, null, null, password, "第9期", 9, hash);
+    }
+}
@@ -0,0 +1,87 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.PhoneBloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// PhoneBloomFilter: misses are only trusted when trust-misses is on (off by default) and outside the grace window;
+// phones added while a rebuild is scanning end up in the filter that replaces the old one
+class PhoneBloomFilterTest {
+
+    @Test
+    void missesFallThroughWhileTheFilterMayBeStale() {
+        JdbcTemplate jdbc = table("bloom_grace");
+        jdbc.update("INSERT INTO user_teacher (id, teacherTel) VALUES (1, '13800000001')");
+        PhoneBloomFilter filter = new PhoneBloomFilter(jdbc);
+        ReflectionTestUtils.setField(filter, "trustMisses", true);
+
+        // Not built yet: everything passes
+        assertThat(filter.mightContain("13900000009")).isTrue();
+
+        filter.rebuild();
+        assertThat(filter.mightContain("13800000001")).isTrue();
+        // Inside the default grace period after a rebuild a miss still goes to the cache/DB
+        assertThat(filter.mightContain("13900000009")).isTrue();
+        assertThat(filter.savedQueries()).isZero();
+
+        ReflectionTestUtils.setField(filter, "gracePeriod", Duration.ZERO);
+        filter.holdOff();
+        assertThat(filter.mightContain("13900000009")).isFalse();
+        assertThat(filter.savedQueries()).isEqualTo(1);
+
+        // Default (other writers may exist): never answer from a miss
+        PhoneBloomFilter byDefault = new PhoneBloomFilter(jdbc);
+        ReflectionTestUtils.setField(byDefault, "gracePeriod", Duration.ZERO);
+        byDefault.rebuild();
+        assertThat(byDefault.mightContain("13900000009")).isTrue();
+        assertThat(byDefault.savedQueries()).isZero();
+        assertThat(byDefault.statsSnapshot()).containsEntry("untrustedMisses", 1L).containsEntry("trustMisses", false);
+    }
+
+    @Test
+    void addDuringRebuildSurvivesTheSwap() throws Exception {
+        JdbcTemplate jdbc = table("bloom_swap");
+        for (int i = 1; i <= 2000; i++) {
+            jdbc.update("INSERT INTO user_teacher (id, teacherTel) VALUES (?, ?)", i, SyntheticTeachers.phone(i));
+        }
+        PhoneBloomFilter filter = new PhoneBloomFilter(jdbc);
+        ReflectionTestUtils.setField(filter, "gracePeriod", Duration.ZERO);
+        ReflectionTestUtils.setField(filter, "trustMisses", true);
+        ReflectionTestUtils.setField(filter, "chunkSize", 10);
+        filter.rebuild();
+
+        // Keep committing new rows and adding their phones (as the after-commit hook does)
+        // while rebuilds scan and swap the filter underneath
+        Thread rebuilds = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                filter.rebuild();
+            }
+        });
+        rebuilds.start();
+        int added = 0;
+        while (rebuilds.isAlive()) {
+            String phone = SyntheticTeachers.phone(100_000 + added);
+            jdbc.update("INSERT INTO user_teacher (id, teacherTel) VALUES (?, ?)", 10_000 + added, phone);
+            filter.add(phone);
+            added++;
+        }
+        rebuilds.join();
+        for (int i = 0; i < added; i++) {
+            assertThat(filter.mightContain(SyntheticTeachers.phone(100_000 + i))).as("added phone %d", i).isTrue();
+        }
+        assertThat(added).isPositive();
+    }
+
+    private static JdbcTemplate table(String db) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + db + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("CREATE TABLE user_teacher (id BIGINT PRIMARY KEY, teacherTel VARCHAR(20))");
+        return jdbc;
+    }
+}
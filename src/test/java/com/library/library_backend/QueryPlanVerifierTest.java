@@ -0,0 +1,46 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.QueryPlanVerifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Strict mode must start on the schema Hibernate generates, and must notice when an index goes missing
+@SpringBootTest(properties = "app.query-plan.mode=strict")
+@ActiveProfiles("loadtest")
+class QueryPlanVerifierTest {
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allFindersUseIndexes() {
+        List<QueryPlanVerifier.PlanCheck> checks = queryPlanVerifier.verify();
+        checks.forEach(c -> System.out.println(c.finder() + " -> " + c.plan()));
+
+        assertThat(checks).isNotEmpty();
+        assertThat(checks).noneMatch(QueryPlanVerifier.PlanCheck::scan);
+    }
+
+    @Test
+    void detectsMissingPhoneIndex() {
+        jdbcTemplate.execute("DROP INDEX idx_teacher_tel");
+        try {
+            assertThat(queryPlanVerifier.verify())
+                    .filteredOn(QueryPlanVerifier.PlanCheck::scan)
+                    .extracting(QueryPlanVerifier.PlanCheck::finder)
+                    .containsExactlyInAnyOrder("findByPhone", "findAllByPhone", "findLoginViewsByPhone", "findLoginViewsByPhoneIn");
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_teacher_tel ON user_teacher (teacherTel)");
+        }
+    }
+}
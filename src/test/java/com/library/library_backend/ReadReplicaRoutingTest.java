@@ -0,0 +1,129 @@
+package com.library.library_backend;
+
+import com.library.library_backend.config.ReadWriteRoutingDataSource;
+import com.library.library_backend.controller.TeacherController;
+import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.LookupKeyBackfillJob;
+import com.library.library_backend.service.TeacherLookupKey;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two embedded H2 databases stand in for the MySQL primary and its replica, plus one replica that is down.
+ * Rows written straight into one side show where each query went.
+ */
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:rwPrimary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:rwReplica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String DEAD_REPLICA_URL = "jdbc:h2:tcp://127.0.0.1:9/none";
+
+    @Test
+    void routesReadOnlyQueriesToReplicas() throws Exception {
+        // Give the replica the same schema (and seeded batches) a real one would get from replication
+        new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest", "--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + REPLICA_URL, "--spring.jpa.hibernate.ddl-auto=create").close();
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest", "--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + PRIMARY_URL,
+                "--app.datasource.replica.urls=" + DEAD_REPLICA_URL + "," + REPLICA_URL,
+                "--app.datasource.replica.connection-timeout=250ms",
+                "--app.datasource.replica.read-after-write-window=1s",
+                "--app.datasource.replica.health-check-interval=1h",
+                "--app.lookup-key.backfill.on-startup=false",
+                "--app.password.migration.on-startup=false")) {
+
+            JdbcTemplate primary = ctx.getBean(JdbcTemplate.class);
+            JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+            insert(replica, "王五", "13900000001", "370702197707070031");
+            insert(primary, "赵六", "13900000002", "370702197808080042");
+
+            TeacherController controller = ctx.getBean(TeacherController.class);
+            TeacherRepository repository = ctx.getBean(TeacherRepository.class);
+
+            // Read-only repository calls go to the replica; the dead one is skipped after its first failure
+            for (int i = 0; i < 4; i++) {
+                assertThat(controller.findAccount(Map.of("name", "王五", "idCard", "370702197707070031"))).isEqualTo("13900000001");
+            }
+            assertThatThrownBy(() -> controller.findAccount(Map.of("name", "赵六", "idCard", "370702197808080042")))
+                    .hasMessageContaining("未找到");
+            // Plain JdbcTemplate outside a read-only transaction stays on the primary
+            assertThat(primary.queryForList("SELECT teacherTel FROM user_teacher", String.class)).containsExactly("13900000002");
+
+            // A write goes to the primary, and reads right after it follow it there
+            Teacher teacher = new Teacher();
+            teacher.setName("孙七");
+            teacher.setPhone("13900000003");
+            teacher.setIdCard("370702199909090053");
+            teacher.setSessions("第9期");
+            repository.save(teacher);
+            String key = TeacherLookupKey.of("孙七", "370702199909090053");
+            assertThat(repository.findPhonesByLookupKey(key)).containsExactly("13900000003");
+            assertThat(replica.queryForObject("SELECT COUNT(*) FROM user_teacher WHERE teacherTel = '13900000003'", Long.class)).isZero();
+
+            // Once the window has passed, reads go back to the (never replicated, here) replica
+            Thread.sleep(1_200);
+            assertThat(repository.findPhonesByLookupKey(key)).isEmpty();
+
+            // Batch jobs write through JdbcTemplate; their updates open the window too
+            primary.update("INSERT INTO user_teacher (teacherReal, teacherTel, teacherIDCa, teacherIDNu, teacherSessions) "
+                    + "VALUES ('周八', '13900000004', '370702198010100064', '100064', '第9期')");
+            assertThat(ctx.getBean(LookupKeyBackfillJob.class).run(false).updated()).isEqualTo(1);
+            assertThat(repository.findPhonesByLookupKey(TeacherLookupKey.of("周八", "370702198010100064")))
+                    .containsExactly("13900000004");
+
+            Map<String, Object> stats = ctx.getBean(ReadWriteRoutingDataSource.class).statsSnapshot();
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> replicas = (List<Map<String, Object>>) stats.get("replicas");
+            assertThat(replicas.get(0)).containsEntry("healthy", false).containsEntry("routed", 0L);
+            assertThat((Long) replicas.get(0).get("failures")).isEqualTo(1);
+            assertThat(replicas.get(1)).containsEntry("healthy", true);
+            assertThat((Long) replicas.get(1).get("routed")).isGreaterThanOrEqualTo(6);
+            assertThat((Long) stats.get("guardedReads")).isPositive();
+            assertThat((Long) stats.get("primaryWrites")).isPositive();
+        }
+    }
+
+    @Test
+    void findersOpenNoTransactionWithoutReplicas() {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest", "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:rwNone;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--app.lookup-key.backfill.on-startup=false",
+                "--app.password.migration.on-startup=false")) {
+            assertThat(ctx.getBeansOfType(ReadWriteRoutingDataSource.class)).isEmpty();
+            insert(ctx.getBean(JdbcTemplate.class), "王五", "13900000001", "370702197707070031");
+            TeacherRepository repository = ctx.getBean(TeacherRepository.class);
+            Statistics statistics = ctx.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // The hot login query: one prepared statement, no transaction (so no begin / SET SESSION READ ONLY / commit)
+            assertThat(repository.findLoginViewsByPhone("13900000001")).hasSize(1);
+            assertThat(repository.findPhonesByLookupKey(TeacherLookupKey.of("王五", "370702197707070031"))).containsExactly("13900000001");
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            assertThat(statistics.getTransactionCount()).isZero();
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbc, String name, String phone, String idCard) {
+        jdbc.update("INSERT INTO user_teacher (teacherReal, teacherTel, teacherIDCa, teacherIDNu, teacherSessions, teacherBatch, "
+                + "teacherLookupKey) VALUES (?, ?, ?, ?, ?, ?, ?)", name, phone, idCard, idCard.substring(12), "第9期", 9,
+                TeacherLookupKey.of(name, idCard));
+    }
+}
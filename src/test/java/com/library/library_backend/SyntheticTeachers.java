@@ -0,0 +1,115 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.TeacherLookupKey;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates realistic user_teacher rows for local load tests: valid mobile numbers,
+ * 18-digit ID cards with a correct check digit, several training batches per phone and
+ * a configurable share of exact duplicate rows (the kind the health check reports).
+ * Deterministic for a given seed, so runs are comparable.
+ */
+final class SyntheticTeachers {
+
+    private static final String[] PHONE_PREFIXES = {"130", "133", "135", "138", "150", "157", "177", "186", "189", "199"};
+    private static final String[] REGIONS = {"370702", "370703", "370704", "370705", "370781", "370782", "370783", "370784"};
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "赵", "黄", "周", "吴", "徐", "孙", "马", "朱"};
+    private static final String[] GIVEN = {"伟", "芳", "娜", "敏", "静", "丽", "强", "磊", "军", "洋", "勇", "艳", "杰", "娟", "涛", "明", "霞", "秀英"};
+    private static final String[] CATEGORIES = {"潍坊市参培教师", "县区参培教师", "骨干教师"};
+    private static final String[] LEVELS = {"优秀", "良好", "合格"};
+    private static final int[] BATCHES = {7, 8, 9};
+    private static final int[] ID_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final char[] ID_CHECK = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
+
+    /**
+     * @param teachers          distinct people (= distinct phones)
+     * @param multiBatchShare   share of people who attended more than one batch
+     * @param duplicateShare    share of people with one exact duplicate row
+     */
+    record Spec(int teachers, double multiBatchShare, double duplicateShare, long seed) {
+
+        static Spec of(int teachers) {
+            return new Spec(teachers, 0.3, 0.02, 42);
+        }
+    }
+
+    // One person; the login and findAccount drivers use these credentials
+    record Person(String name, String phone, String idCard, String password) {
+    }
+
+    private final List<Person> people = new ArrayList<>();
+    private final List<Object[]> rows = new ArrayList<>();
+
+    private SyntheticTeachers() {
+    }
+
+    static SyntheticTeachers generate(Spec spec) {
+        SyntheticTeachers data = new SyntheticTeachers();
+        Random random = new Random(spec.seed());
+        for (int i = 0; i < spec.teachers(); i++) {
+            String name = SURNAMES[random.nextInt(SURNAMES.length)] + GIVEN[random.nextInt(GIVEN.length)]
+                    + (random.nextBoolean() ? GIVEN[random.nextInt(GIVEN.length)] : "");
+            String idCard = idCard(i, random);
+            Person person = new Person(name, phone(i), idCard, idCard.substring(12));
+            data.people.add(person);
+
+            int batches = random.nextDouble() < spec.multiBatchShare() ? 2 + random.nextInt(BATCHES.length - 1) : 1;
+            int firstBatch = random.nextInt(BATCHES.length - batches + 1);
+            for (int b = 0; b < batches; b++) {
+                data.rows.add(row(person, BATCHES[firstBatch + b], i, random));
+            }
+            if (random.nextDouble() < spec.duplicateShare()) {
+                data.rows.add(data.rows.get(data.rows.size() - 1).clone());
+            }
+        }
+        return data;
+    }
+
+    List<Person> people() {
+        return people;
+    }
+
+    int rowCount() {
+        return rows.size();
+    }
+
+    void seed(JdbcTemplate jdbc) {
+        jdbc.batchUpdate("INSERT INTO user_teacher (teacherReal, teacherTel, teacherIDCa, teacherClas, teacherGrad, teacherCert, "
+                + "teacherLeve, teacherIDNu, teacherCert1, teacherSessions, teacherBatch, teacherLookupKey) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static Object[] row(Person p, int batch, int i, Random random) {
+        String certSuffix = String.format("%06d", i);
+        return new Object[]{p.name(), p.phone(), p.idCard(), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                String.valueOf(60 + random.nextInt(41)), "WF20" + (17 + batch), LEVELS[random.nextInt(LEVELS.length)],
+                p.password(), certSuffix, "第" + batch + "期", batch, TeacherLookupKey.of(p.name(), p.idCard())};
+    }
+
+    // 7919 is coprime with 10^8, so i -> i * 7919 mod 10^8 never repeats and the numbers look scattered
+    static String phone(int i) {
+        return PHONE_PREFIXES[i % PHONE_PREFIXES.length] + String.format("%08d", (i * 7919L) % 100_000_000L);
+    }
+
+    // Region + birth date + sequence (unique per index) + GB 11643 check digit
+    static String idCard(int i, Random random) {
+        LocalDate birth = LocalDate.of(1965, 1, 1).plusDays(random.nextInt(35 * 365));
+        String body = REGIONS[i % REGIONS.length]
+                + String.format("%04d%02d%02d", birth.getYear(), birth.getMonthValue(), birth.getDayOfMonth())
+                + String.format("%03d", (i / REGIONS.length) % 1000);
+        return body + checkDigit(body);
+    }
+
+    static char checkDigit(String first17) {
+        int sum = 0;
+        for (int k = 0; k < 17; k++) {
+            sum += (first17.charAt(k) - '0') * ID_WEIGHTS[k];
+        }
+        return ID_CHECK[sum % 11];
+    }
+}
@@ -0,0 +1,95 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.DbAccessGate;
+import com.library.library_backend.service.TeacherBulkLookupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Bulk phone lookup: one IN query per chunk, one NDJSON line per requested phone, same records as login
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-lookup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.bulk-lookup.chunk-size=100",
+        "app.bulk-lookup.max-phones=300"})
+@ActiveProfiles("loadtest")
+class TeacherBulkLookupServiceTest {
+
+    @Autowired
+    private TeacherBulkLookupService teacherBulkLookupService;
+
+    @Autowired
+    private DbAccessGate dbAccessGate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void streamsOneLinePerPhoneWithOneQueryPerChunk() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(1_000, 0.3, 0.0, 7));
+        data.seed(jdbcTemplate);
+        Map<String, Integer> rowsPerPhone = jdbcTemplate.queryForList("SELECT teacherTel, COUNT(*) c FROM user_teacher GROUP BY teacherTel")
+                .stream().collect(Collectors.toMap(r -> (String) r.get("teacherTel"), r -> ((Number) r.get("c")).intValue()));
+
+        List<String> request = new ArrayList<>();
+        for (int i = 0; i < 240; i++) {
+            request.add(data.people().get(i * 3).phone());
+        }
+        request.add(" " + request.get(0) + " ");   // duplicate after trim
+        request.add("17000000000");                 // unknown
+        request.add("");
+
+        List<String> phones = teacherBulkLookupService.normalize(request);
+        assertThat(phones).hasSize(241).startsWith(request.get(0)).endsWith("17000000000");
+
+        long before = dbAccessGate.acquiredCount();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        teacherBulkLookupService.write(phones, out);
+        assertThat(dbAccessGate.acquiredCount() - before).isEqualTo(3);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(241);
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode line = jsonMapper.readTree(lines.get(i));
+            String phone = phones.get(i);
+            assertThat(line.get("phone").asString()).isEqualTo(phone);
+            int expected = rowsPerPhone.getOrDefault(phone, 0);
+            assertThat(line.get("found").asBoolean()).isEqualTo(expected > 0);
+            assertThat(line.get("userList").size()).isEqualTo(expected);
+            for (JsonNode item : line.get("userList")) {
+                assertThat(item.get("phone").asString()).isEqualTo(phone);
+                assertThat(item.get("imgUrl").asString()).contains("preview/" + item.get("batch").asString() + "_");
+                assertThat(item.get("pdfUrl").asString()).endsWith("_pdf.pdf");
+                assertThat(item.has("password")).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void rejectsTooManyPhones() {
+        List<String> request = new ArrayList<>();
+        for (int i = 0; i < 301; i++) {
+            request.add(SyntheticTeachers.phone(i));
+        }
+        assertThatThrownBy(() -> teacherBulkLookupService.normalize(request))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> teacherBulkLookupService.normalize(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
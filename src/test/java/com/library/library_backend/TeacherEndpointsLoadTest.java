@@ -0,0 +1,106 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.PasswordMigrationJob;
+import com.library.library_backend.service.PasswordVerifier;
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.TeacherLookupCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Local load test for /teacher/login and /teacher/findAccount on a synthetic dataset in
+ * embedded H2; no network or prod database needed. Size it with system properties, e.g.
+ * {@code ./mvnw test -Dtest=TeacherEndpointsLoadTest -Dloadtest.teachers=100000 -Dloadtest.requests=50000 -Dloadtest.concurrency=200}
+ */
+class TeacherEndpointsLoadTest {
+
+    private static final int TEACHERS = Integer.getInteger("loadtest.teachers", 5_000);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 50);
+    private static final double DUPLICATE_SHARE = Double.parseDouble(System.getProperty("loadtest.duplicate-share", "0.02"));
+
+    @Test
+    void loginAndFindAccount() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(TEACHERS, 0.3, DUPLICATE_SHARE, 42));
+        List<SyntheticTeachers.Person> people = data.people();
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:endpoints;MODE=MySQL;DB_CLOSE_DELAY=-1")) {
+
+            data.seed(ctx.getBean(JdbcTemplate.class));
+            // Seeding goes around JPA, so the phone filter has to be rebuilt by hand
+            PhoneBloomFilter bloom = ctx.getBean(PhoneBloomFilter.class);
+            bloom.rebuild();
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/teacher/";
+            LoadHarness harness = new LoadHarness(REQUESTS, CONCURRENCY);
+
+            List<LoadHarness.Result> results = new ArrayList<>();
+            // Spread over all phones, so the cache only helps with repeat visitors
+            results.add(harness.run("login", LoadHarness.postJson(URI.create(base + "login"), i -> {
+                SyntheticTeachers.Person p = people.get((int) ((i * 7919L) % people.size()));
+                return "{\"phone\":\"" + p.phone() + "\",\"password\":\"" + p.password() + "\"}";
+            })));
+            // Same 100 teachers over and over, like refreshes on results day
+            results.add(harness.run("login-hot", LoadHarness.postJson(URI.create(base + "login"), i -> {
+                SyntheticTeachers.Person p = people.get(i % Math.min(100, people.size()));
+                return "{\"phone\":\"" + p.phone() + "\",\"password\":\"" + p.password() + "\"}";
+            })));
+            // Phones that are not in the table (mistyped numbers, credential stuffing): answered by the Bloom filter
+            results.add(harness.run("login-unknown", LoadHarness.postJson(URI.create(base + "login"),
+                    i -> "{\"phone\":\"170" + String.format("%08d", i) + "\",\"password\":\"123456\"}")));
+            results.add(harness.run("findAccount", LoadHarness.postJson(URI.create(base + "findAccount"), i -> {
+                SyntheticTeachers.Person p = people.get((int) ((i * 7919L) % people.size()));
+                return "{\"name\":\"" + p.name() + "\",\"idCard\":\"" + p.idCard() + "\"}";
+            })));
+
+            // Same logins again once every password is a PBKDF2 hash: first visits pay for a hash, repeats hit the cache
+            System.out.println("Password migration: " + ctx.getBean(PasswordMigrationJob.class).run(false));
+            ctx.getBean(TeacherLookupCache.class).invalidateAll();
+            results.add(harness.run("login-hashed", LoadHarness.postJson(URI.create(base + "login"), i -> {
+                SyntheticTeachers.Person p = people.get((int) ((i * 7919L) % people.size()));
+                return "{\"phone\":\"" + p.phone() + "\",\"password\":\"" + p.password() + "\"}";
+            })));
+            results.add(harness.run("login-hot-hashed", LoadHarness.postJson(URI.create(base + "login"), i -> {
+                SyntheticTeachers.Person p = people.get(i % Math.min(100, people.size()));
+                return "{\"phone\":\"" + p.phone() + "\",\"password\":\"" + p.password() + "\"}";
+            })));
+
+            LoadHarness.print("TEACHER ENDPOINTS LOAD TEST", String.format("Dataset: %d teachers / %d rows; %d requests per run, %d concurrent clients",
+                    TEACHERS, data.rowCount(), REQUESTS, CONCURRENCY), results);
+
+            // login-unknown answers 401 by design; every other run must be all 2xx
+            assertThat(results).filteredOn(r -> !r.name().equals("login-unknown"))
+                    .allSatisfy(r -> assertThat(r.failed()).isZero());
+            System.out.println("Bloom filter: " + bloom.statsSnapshot());
+            System.out.println("Password verifier: " + ctx.getBean(PasswordVerifier.class).statsSnapshot());
+            assertThat(bloom.savedQueries()).isGreaterThan(REQUESTS * 9L / 10);
+
+            // Per-stage time totals as a Prometheus scraper sees them
+            String metricsUrl = "http://localhost:" + ctx.getEnvironment().getProperty("local.management.port") + "/actuator/prometheus";
+            String scrape = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(metricsUrl)).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            scrape.lines().filter(l -> l.startsWith("teacher_login_stage_seconds_sum")).forEach(System.out::println);
+            assertThat(scrape).contains("teacher_login_stage_seconds_count{stage=\"query\"}")
+                    .contains("teacher_login_outcome_total{outcome=\"success\"}")
+                    .contains("teacher_login_batch_total")
+                    .contains("db_gate_waiting");
+            // Not reachable through the public port
+            int publicStatus = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(base.replace("/teacher/", "/actuator/prometheus"))).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            assertThat(publicStatus).isEqualTo(404);
+        }
+    }
+}
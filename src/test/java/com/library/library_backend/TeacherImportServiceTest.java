@@ -0,0 +1,76 @@
+package com.library.library_backend;
+
+import com.library.library_backend.entity.ImportJob;
+import com.library.library_backend.importer.TeacherImportService;
+import com.library.library_backend.repository.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Imports a generated DBF into the embedded H2 database, then re-runs it and resumes a half-finished job
+@SpringBootTest(properties = {"app.import.chunk-size=500", "app.import.pause-between-chunks=0ms"})
+@ActiveProfiles("loadtest")
+class TeacherImportServiceTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private TeacherImportService teacherImportService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importsAndResumes() throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            String phone = i % 100 == 99 ? null : String.format("137%08d", i);
+            rows.add(new String[]{"教师" + i, phone, String.format("37070219900101%04d", i % 10_000), "000000", i % 2 == 0 ? "第9期" : "第8期"});
+        }
+        Path file = DbfReaderTest.write(dir.resolve("user_teacher.dbf"),
+                List.of("teacherReal", "teacherTel", "teacherIDCa", "teacherIDNu", "teacherSes"), new int[]{20, 11, 18, 20, 30}, rows);
+
+        ImportJob job = teacherImportService.runNow(file, false);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getProcessedRecords()).isEqualTo(ROWS);
+        assertThat(job.getInsertedRows()).isEqualTo(ROWS - ROWS / 100);
+        assertThat(count("teacherTel LIKE '137%'")).isEqualTo(ROWS - ROWS / 100);
+        assertThat(count("teacherTel = '13700000002' AND teacherSessions = '第9期' AND teacherBatch = 9")).isEqualTo(1);
+        assertThat(count("teacherTel = '13700000003' AND teacherBatch = 8")).isEqualTo(1);
+        assertThat(count("teacherTel LIKE '137%' AND teacherLookupKey IS NULL")).isZero();
+
+        // Same file again: everything is already there
+        ImportJob again = teacherImportService.runNow(file, false);
+        assertThat(again.getInsertedRows()).isZero();
+        assertThat(count("teacherTel LIKE '137%'")).isEqualTo(ROWS - ROWS / 100);
+
+        // Pretend a job died after 3000 records: resume picks up its checkpoint instead of starting over
+        again.setStatus("FAILED");
+        again.setProcessedRecords(3_000);
+        importJobRepository.save(again);
+        ImportJob resumed = teacherImportService.runNow(file, true);
+        assertThat(resumed.getId()).isEqualTo(again.getId());
+        assertThat(resumed.getStatus()).isEqualTo("COMPLETED");
+        assertThat(resumed.getProcessedRecords()).isEqualTo(ROWS);
+    }
+
+    private long count(String where) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_teacher WHERE " + where, Long.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.library.library_backend;
+
+import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.TeacherLookupCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Saving a Teacher through JPA evicts its phone from the login cache once the transaction has committed
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:invalidation;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+class TeacherLookupCacheInvalidationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeacherLookupCache teacherLookupCache;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void saveInvalidatesAfterCommit() {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(20, 0.0, 0.0, 17));
+        data.seed(jdbcTemplate);
+        String phone = data.people().get(0).phone();
+
+        teacherLookupCache.findAllByPhone(phone);
+        long misses = teacherLookupCache.stats().missCount();
+        teacherLookupCache.findAllByPhone(phone);
+        assertThat(teacherLookupCache.stats().missCount()).isEqualTo(misses);
+
+        // Plain repository save: the next lookup misses and sees the new row
+        Teacher teacher = teacherRepository.findAllByPhone(phone).get(0);
+        teacher.setScore("61");
+        teacherRepository.save(teacher);
+        List<TeacherLoginView> reloaded = teacherLookupCache.findAllByPhone(phone);
+        assertThat(teacherLookupCache.stats().missCount()).isEqualTo(misses + 1);
+        assertThat(reloaded.get(0).score()).isEqualTo("61");
+
+        // A concurrent login between flush and commit reloads the old committed row;
+        // the eviction must still happen after the commit so that row does not stay cached
+        transactionTemplate.executeWithoutResult(status -> {
+            Teacher inTx = teacherRepository.findAllByPhone(phone).get(0);
+            inTx.setScore("62");
+            teacherRepository.saveAndFlush(inTx);
+            List<TeacherLoginView> concurrent = CompletableFuture
+                    .supplyAsync(() -> teacherLookupCache.findAllByPhone(phone)).join();
+            assertThat(concurrent.get(0).score()).isEqualTo("61");
+        });
+        assertThat(teacherLookupCache.findAllByPhone(phone).get(0).score()).isEqualTo("62");
+
+        // Rolled back: nothing changed, the cached rows stay
+        misses = teacherLookupCache.stats().missCount();
+        transactionTemplate.executeWithoutResult(status -> {
+            Teacher inTx = teacherRepository.findAllByPhone(phone).get(0);
+            inTx.setScore("63");
+            teacherRepository.saveAndFlush(inTx);
+            status.setRollbackOnly();
+        });
+        assertThat(teacherLookupCache.findAllByPhone(phone).get(0).score()).isEqualTo("62");
+        assertThat(teacherLookupCache.stats().missCount()).isEqualTo(misses);
+    }
+}
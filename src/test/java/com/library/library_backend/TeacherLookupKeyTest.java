@@ -0,0 +1,80 @@
+package com.library.library_backend;
+
+import com.library.library_backend.controller.TeacherController;
+import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.LookupKeyBackfillJob;
+import com.library.library_backend.service.TeacherLookupKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// findAccount by digest key: normalization, kept up to date on JPA writes, backfilled for raw SQL rows
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:lookupKey;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.lookup-key.backfill.on-startup=false"})
+@ActiveProfiles("loadtest")
+class TeacherLookupKeyTest {
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private LookupKeyBackfillJob lookupKeyBackfillJob;
+
+    @Autowired
+    private TeacherController teacherController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void normalizesNameAndIdCard() {
+        String key = TeacherLookupKey.of("张三", "37070219900101001X");
+        assertThat(key).hasSize(TeacherLookupKey.LENGTH).matches("[0-9a-f]+");
+        assertThat(TeacherLookupKey.of(" 张三　", " 37070219900101001x ")).isEqualTo(key);
+        assertThat(TeacherLookupKey.of("张四", "37070219900101001X")).isNotEqualTo(key);
+        assertThat(TeacherLookupKey.of(null, "37070219900101001X")).isNull();
+        assertThat(TeacherLookupKey.of("张三", " ")).isNull();
+    }
+
+    @Test
+    void findsAccountByLookupKey() {
+        // Written through JPA: the listener fills in the key, and keeps it current on update
+        Teacher teacher = new Teacher();
+        teacher.setName("李四 ");
+        teacher.setPhone("13911110001");
+        teacher.setIdCard("370702198805050017");
+        teacher.setSessions("第9期");
+        teacher = teacherRepository.save(teacher);
+        assertThat(teacher.getLookupKey()).isEqualTo(TeacherLookupKey.of("李四", "370702198805050017"));
+        assertThat(teacherRepository.findPhonesByLookupKey(teacher.getLookupKey())).containsExactly("13911110001");
+
+        teacher.setName("李思");
+        teacher = teacherRepository.save(teacher);
+        assertThat(teacher.getLookupKey()).isEqualTo(TeacherLookupKey.of("李思", "370702198805050017"));
+
+        // Written with raw SQL (old imports): no key until the backfill runs, findAccount falls back meanwhile
+        jdbcTemplate.update("INSERT INTO user_teacher (teacherReal, teacherTel, teacherIDCa, teacherSessions, teacherBatch) "
+                + "VALUES (?, ?, ?, ?, ?)", "王五", "13911110002", "37070219770707003x", "第8期", 8);
+        Map<String, String> request = Map.of("name", "王五", "idCard", "37070219770707003x");
+        assertThat(lookupKeyBackfillJob.isComplete()).isFalse();
+        assertThat(teacherController.findAccount(request)).isEqualTo("13911110002");
+
+        LookupKeyBackfillJob.BackfillResult result = lookupKeyBackfillJob.run(false);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(lookupKeyBackfillJob.isComplete()).isTrue();
+        assertThat(lookupKeyBackfillJob.run(false).scanned()).isZero();
+
+        // Padding and the case of the check letter no longer matter
+        assertThat(teacherController.findAccount(Map.of("name", " 王五　", "idCard", "37070219770707003X")))
+                .isEqualTo("13911110002");
+        assertThat(teacherController.findAccount(Map.of("name", "李思", "idCard", "370702198805050017")))
+                .isEqualTo("13911110001");
+    }
+}
@@ -0,0 +1,119 @@
+package com.library.library_backend;
+
+import com.library.library_backend.entity.Teacher;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.DbAccessGate;
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.SessionTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Signed login token and GET /teacher/me: no DB access on repeat views, ETag/304, new ETag after a change
+class TeacherMeEndpointTest {
+
+    @Test
+    void tokens() {
+        Instant now = Instant.parse("2025-07-01T08:00:00Z");
+        SessionTokens tokens = new SessionTokens("secret-for-tests", Duration.ofHours(2), Clock.fixed(now, ZoneOffset.UTC));
+        String token = tokens.issue("13800000001");
+        assertThat(token).startsWith("13800000001.").hasSizeLessThan(60);
+        assertThat(tokens.verify(token)).isEqualTo("13800000001");
+
+        // Another phone under the same signature, a different key, a later clock, garbage
+        assertThat(tokens.verify(token.replace("13800000001", "13800000002"))).isNull();
+        assertThat(new SessionTokens("other-secret", Duration.ofHours(2), Clock.fixed(now, ZoneOffset.UTC)).verify(token)).isNull();
+        SessionTokens later = new SessionTokens("secret-for-tests", Duration.ofHours(2),
+                Clock.fixed(now.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+        assertThat(later.verify(token)).isNull();
+        assertThat(tokens.verify(null)).isNull();
+        assertThat(tokens.verify("")).isNull();
+        assertThat(tokens.verify("13800000001.abc.%%%")).isNull();
+    }
+
+    @Test
+    void meServesCachedListWithEtag() throws Exception {
+        SyntheticTeachers data = SyntheticTeachers.generate(new SyntheticTeachers.Spec(200, 0.5, 0.0, 7));
+        SyntheticTeachers.Person person = data.people().get(0);
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(LibraryBackendApplication.class).run(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:me;MODE=MySQL;DB_CLOSE_DELAY=-1")) {
+
+            data.seed(ctx.getBean(JdbcTemplate.class));
+            ctx.getBean(PhoneBloomFilter.class).rebuild();
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/teacher/";
+            HttpClient http = HttpClient.newHttpClient();
+            JsonMapper json = JsonMapper.builder().build();
+
+            HttpResponse<String> login = http.send(HttpRequest.newBuilder(URI.create(base + "login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"phone\":\"" + person.phone() + "\",\"password\":\"" + person.password() + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(login.statusCode()).isEqualTo(200);
+            JsonNode loginBody = json.readTree(login.body());
+            String token = loginBody.get("token").asString();
+            assertThat(loginBody.get("expiresIn").asLong()).isPositive();
+
+            HttpResponse<String> first = http.send(me(base, token, null), HttpResponse.BodyHandlers.ofString());
+            assertThat(first.statusCode()).isEqualTo(200);
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+            assertThat(first.headers().firstValue("Cache-Control").orElseThrow()).contains("no-cache");
+            assertThat(json.readTree(first.body()).get("userList")).isEqualTo(loginBody.get("userList"));
+
+            // Repeat views: 304 with no body and no trip through the DB gate
+            DbAccessGate gate = ctx.getBean(DbAccessGate.class);
+            long acquired = gate.acquiredCount();
+            for (int i = 0; i < 20; i++) {
+                HttpResponse<String> repeat = http.send(me(base, token, etag), HttpResponse.BodyHandlers.ofString());
+                assertThat(repeat.statusCode()).isEqualTo(304);
+                assertThat(repeat.body()).isEmpty();
+            }
+            assertThat(http.send(me(base, token, null), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(200);
+            assertThat(gate.acquiredCount()).isEqualTo(acquired);
+
+            // A change to the teacher's record invalidates the list; the old ETag no longer matches
+            TeacherRepository repository = ctx.getBean(TeacherRepository.class);
+            Teacher teacher = repository.findAllByPhone(person.phone()).get(0);
+            teacher.setLevel("优秀-复核");
+            repository.save(teacher);
+            HttpResponse<String> changed = http.send(me(base, token, etag), HttpResponse.BodyHandlers.ofString());
+            assertThat(changed.statusCode()).isEqualTo(200);
+            assertThat(changed.headers().firstValue("ETag").orElseThrow()).isNotEqualTo(etag);
+            assertThat(changed.body()).contains("优秀-复核");
+
+            // Missing, malformed or tampered tokens never reach the cache
+            assertThat(http.send(me(base, null, null), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(401);
+            assertThat(http.send(me(base, "nonsense", null), HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(401);
+            String other = data.people().get(1).phone();
+            assertThat(http.send(me(base, token.replace(person.phone(), other), null), HttpResponse.BodyHandlers.ofString())
+                    .statusCode()).isEqualTo(401);
+        }
+    }
+
+    private static HttpRequest me(String base, String token, String ifNoneMatch) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "me")).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return request.build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.library.library_backend;
+
+import com.library.library_backend.service.LoginRateLimiter;
+import com.library.library_backend.service.TokenBucketLimiter;
+import com.library.library_backend.service.TokenBucketLimiter.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Token-bucket limiter on a fake clock: burst, refill, per-key isolation, refund, idle eviction, contention
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenRefills() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", Limit.parse("5/1m"), now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("13800000001")).isZero();
+        }
+        long wait = limiter.tryAcquire("13800000001");
+        assertThat(wait).isEqualTo(12 * SECOND);
+        // Other keys have their own bucket
+        assertThat(limiter.tryAcquire("13800000002")).isZero();
+
+        now.addAndGet(12 * SECOND);
+        assertThat(limiter.tryAcquire("13800000001")).isZero();
+        assertThat(limiter.tryAcquire("13800000001")).isPositive();
+        assertThat(limiter.rejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void refundGivesBackOneToken() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", Limit.parse("3/1m"), now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("13800000001")).isZero();
+        }
+        assertThat(limiter.tryAcquire("13800000001")).isPositive();
+        limiter.refund("13800000001");
+        assertThat(limiter.tryAcquire("13800000001")).isZero();
+        // A full bucket is not over-filled by refunds
+        now.addAndGet(60 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            limiter.refund("13800000001");
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("13800000001")).isZero();
+        }
+        assertThat(limiter.tryAcquire("13800000001")).isPositive();
+    }
+
+    @Test
+    void loginPhoneBucketRefundsSuccesses() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, false, Duration.ofMinutes(10), "2/1m", "100/1m", "5/1m", "60/1m");
+        // Successful logins of one account are only bounded by the per-IP bucket
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.checkLogin("13800000001")).isZero();
+            limiter.recordLoginSuccess("13800000001");
+        }
+        assertThat(limiter.checkLogin("13800000001")).isZero();
+        assertThat(limiter.checkLogin("13800000001")).isZero();
+        assertThat(limiter.checkLogin("13800000001")).isEqualTo(30);
+        assertThat(limiter.checkLogin("13800000002")).isZero();
+    }
+
+    @Test
+    void concurrentWrongPasswordsForOnePhoneStayWithinTheLimit() throws Exception {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, false, Duration.ofMinutes(10), "10/1h", "100000/1m", "5/1m", "60/1m");
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 200; t++) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    // Every attempt that gets through fails its password check, so nothing is refunded
+                    if (limiter.checkLogin("13800000001") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        assertThat(admitted.get()).isEqualTo(10);
+    }
+
+    @Test
+    void evictsIdleBuckets() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", Limit.parse("10/1m"), now::get);
+        limiter.tryAcquire("a");
+        now.addAndGet(5 * 60 * SECOND);
+        limiter.tryAcquire("b");
+
+        assertThat(limiter.evictIdle(Duration.ofMinutes(1))).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void neverOverAdmitsUnderContention() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", Limit.parse("1000/1h"));
+        AtomicInteger admitted = new AtomicInteger();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        if (limiter.tryAcquire("13800000001") == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        // 1000 burst plus at most a token or two refilled while the test runs
+        assertThat(admitted.get()).isBetween(1000, 1002);
+    }
+
+    @Test
+    void parsesLimits() {
+        assertThat(Limit.parse("10/1m")).isEqualTo(new Limit(10, Duration.ofMinutes(1)));
+        assertThat(Limit.parse(" 300 / 30s ")).isEqualTo(new Limit(300, Duration.ofSeconds(30)));
+    }
+}
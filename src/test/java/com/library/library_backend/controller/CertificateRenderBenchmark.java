@@ -0,0 +1,73 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.certificate.CertificateAssets;
+import com.library.library_backend.certificate.CertificateRenderer;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.service.BatchResolver;
+import com.library.library_backend.service.CertificateAssetManifest;
+import com.library.library_backend.service.LoginResponseAssembler;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * JMH benchmark for in-JVM certificate rendering: drawing text on the template, the preview PNG and the PDF.
+ * Uses a blank template of the real size in a temp directory, so it runs without the Python resources.
+ *
+ * Run with: ./mvnw -Pbenchmark test "-Djmh.args=CertificateRenderBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CertificateRenderBenchmark {
+
+    private CertificateRenderer renderer;
+    private TeacherLoginView teacher;
+    private BufferedImage certificate;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("cert-bench");
+        ImageIO.write(new BufferedImage(1754, 1240, BufferedImage.TYPE_INT_RGB), "png",
+                dir.resolve(CertificateAssets.templateName("a", "b")).toFile());
+        CertificateAssets assets = new CertificateAssets(dir.toString(), "missing-name-font.ttf", "missing-text-font.ttf");
+        renderer = new CertificateRenderer(assets,
+                new LoginResponseAssembler(mock(BatchResolver.class), "", new CertificateAssetManifest("", "")),
+                "", 1200, 0.9f);
+        teacher = new TeacherLoginView(1L, "张三", "13812345678", "370702199001010011", "a", "88", "WF2026",
+                "b", null, "第9期", 9, null);
+        certificate = renderer.render(teacher);
+        sink = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        return renderer.render(teacher);
+    }
+
+    @Benchmark
+    public int previewPng() throws IOException {
+        sink.reset();
+        renderer.writePreviewPng(certificate, sink);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int pdf() throws IOException {
+        sink.reset();
+        renderer.writePdf(certificate, sink);
+        return sink.size();
+    }
+}
@@ -0,0 +1,212 @@
+package com.library.library_backend.controller;
+
+import com.library.library_backend.entity.BatchDefinition;
+import com.library.library_backend.repository.BatchDefinitionRepository;
+import com.library.library_backend.repository.TeacherLoginView;
+import com.library.library_backend.repository.TeacherRepository;
+import com.library.library_backend.service.BatchRegistry;
+import com.library.library_backend.service.BatchResolver;
+import com.library.library_backend.service.CertificateAssetManifest;
+import com.library.library_backend.service.DbAccessGate;
+import com.library.library_backend.service.LoginEventLogger;
+import com.library.library_backend.service.LoginMetrics;
+import com.library.library_backend.service.LoginRateLimiter;
+import com.library.library_backend.service.MaintenanceState;
+import com.library.library_backend.service.PasswordHashes;
+import com.library.library_backend.service.PasswordVerifier;
+import com.library.library_backend.service.PhoneBloomFilter;
+import com.library.library_backend.service.LoginResponseAssembler;
+import com.library.library_backend.service.LoginResponseFragments;
+import com.library.library_backend.service.SessionTokens;
+import com.library.library_backend.service.TeacherLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH benchmark for the /teacher/login hot path, stage by stage and end to end.
+ * The repository is stubbed, so the numbers are pure CPU/allocation cost of our own code.
+ *
+ * Run with: ./mvnw -Pbenchmark test   (gc profiler on by default, see jmh.args in pom.xml)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PHONE = "13812345678";
+
+    // Records stored under the same phone (one per training batch the teacher attended)
+    @Param({"1", "3", "10"})
+    public int recordsPerPhone;
+
+    // Plaintext rows (before migration) or PBKDF2 hashes; hashed logins after the first hit the success cache
+    @Param({"false", "true"})
+    public boolean hashedPasswords;
+
+    private TeacherController controller;
+    private LoginResponseAssembler assembler;
+    private PasswordVerifier passwordVerifier;
+    private JsonMapper jsonMapper;
+
+    private List<TeacherLoginView> teachers;
+    private Map<String, String> loginRequest;
+    private String password;
+    private Map<String, Object> payload;
+    private LoginResponseFragments fragments;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setUp() {
+        teachers = new ArrayList<>();
+        for (int i = 0; i < recordsPerPhone; i++) {
+            String plain = String.format("10%04d", i);
+            teachers.add(new TeacherLoginView((long) i + 1, "张老师", PHONE, String.format("37070219900101%04d", i),
+                    "潍坊市参培教师", "92", "WF2024" + String.format("%05d", i), "优秀", plain,
+                    "第" + (7 + i % 3) + "期", 7 + i % 3, hashedPasswords ? PasswordHashes.hash(plain, 10_000) : null));
+        }
+        // Worst case for the password loop: only the last record matches
+        password = teachers.get(teachers.size() - 1).password();
+
+        TeacherRepository teacherRepository = mock(TeacherRepository.class);
+        when(teacherRepository.findLoginViewsByPhone(anyString())).thenReturn(teachers);
+
+        BatchDefinitionRepository batchRepository = mock(BatchDefinitionRepository.class);
+        when(batchRepository.count()).thenReturn(3L);
+        when(batchRepository.findAll()).thenReturn(List.of(batch(7, "七"), batch(8, "八"), batch(9, "九")));
+        BatchRegistry batchRegistry = new BatchRegistry(batchRepository);
+        batchRegistry.init();
+        BatchResolver batchResolver = new BatchResolver(batchRegistry, 7);
+
+        // No listing configured: every asset counts as present, as before the manifest existed
+        assembler = new LoginResponseAssembler(batchResolver, "https://yangteam-files.oss-cn-hangzhou.aliyuncs.com/",
+                new CertificateAssetManifest("", ""));
+        controller = new TeacherController();
+        ReflectionTestUtils.setField(controller, "teacherRepository", teacherRepository);
+        ReflectionTestUtils.setField(controller, "teacherLookupCache",
+                new TeacherLookupCache(teacherRepository, new DbAccessGate(true, 10, Duration.ofSeconds(5)),
+                        10_000, Duration.ofMinutes(10)));
+        ReflectionTestUtils.setField(controller, "maintenanceState", new MaintenanceState(false, ""));
+
+        jsonMapper = JsonMapper.builder().build();
+        fragments = new LoginResponseFragments(assembler, new CertificateAssetManifest("", ""), jsonMapper,
+                10_000, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(controller, "loginResponseFragments", fragments);
+        ReflectionTestUtils.setField(controller, "sessionTokens", new SessionTokens("benchmark-secret", Duration.ofHours(2)));
+        // Same sampling as application.yml
+        ReflectionTestUtils.setField(controller, "loginEventLogger",
+                new LoginEventLogger(jsonMapper, 8192, 1.0, "LOGIN_SUCCESS=0.01,FIND_ACCOUNT=0.1"));
+        ReflectionTestUtils.setField(controller, "loginMetrics", new LoginMetrics(new SimpleMeterRegistry()));
+        // The benchmark hammers a single phone, so the limiter is on but effectively unbounded
+        ReflectionTestUtils.setField(controller, "loginRateLimiter",
+                new LoginRateLimiter(true, false, Duration.ofMinutes(10), "1000000000/1s", "1000000000/1s", "5/1m", "60/1m"));
+        // Same defaults as application.yml
+        passwordVerifier = new PasswordVerifier(true, 10_000, 0, 256, Duration.ofSeconds(2), 50_000, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(controller, "passwordVerifier", passwordVerifier);
+        // Never built, so it lets every phone through to the cache
+        ReflectionTestUtils.setField(controller, "phoneBloomFilter", new PhoneBloomFilter(null));
+
+        loginRequest = new HashMap<>();
+        loginRequest.put("phone", PHONE);
+        loginRequest.put("password", password);
+
+        ResponseEntity<?> response = controller.login(loginRequest);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Benchmark fixture cannot log in: " + response.getBody());
+        }
+        // The response as it was assembled before the fragment cache: one map per record, serialized by Jackson
+        List<Map<String, Object>> userList = new ArrayList<>();
+        for (TeacherLoginView t : teachers) {
+            userList.add(assembler.toItem(t));
+        }
+        payload = new HashMap<>();
+        payload.put("code", 200);
+        payload.put("msg", "登录成功");
+        payload.put("userList", userList);
+        sink = new ByteArrayOutputStream(8192);
+    }
+
+    @Benchmark
+    public boolean phoneRegex() {
+        return TeacherController.isValidPhone(PHONE);
+    }
+
+    @Benchmark
+    public boolean passwordLoop() {
+        return TeacherController.passwordMatches(teachers, password);
+    }
+
+    @Benchmark
+    public boolean passwordVerifier() {
+        return passwordVerifier.matches(PHONE, teachers, password);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordVerifier.shutdown();
+    }
+
+    @Benchmark
+    public void buildItems(Blackhole bh) {
+        for (TeacherLoginView t : teachers) {
+            bh.consume(assembler.toItem(t));
+        }
+    }
+
+    @Benchmark
+    public void ossUrls(Blackhole bh) {
+        for (TeacherLoginView t : teachers) {
+            String batch = String.valueOf(t.batch());
+            bh.consume(assembler.imgUrl(batch, t.idCard()));
+            bh.consume(assembler.pdfUrl(batch, t.idCard()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePayload() {
+        return jsonMapper.writeValueAsBytes(payload);
+    }
+
+    // Cached fragments spliced into the output, as SplicedJsonHttpMessageConverter writes them
+    @Benchmark
+    public int spliceFragments() throws IOException {
+        sink.reset();
+        fragments.loginBody(fragments.forPhone(PHONE, teachers), "token", 7200).writeTo(sink);
+        return sink.size();
+    }
+
+    // Controller call plus the body write Spring MVC would do into the response stream
+    @Benchmark
+    public int endToEnd() throws IOException {
+        ResponseEntity<?> response = controller.login(loginRequest);
+        sink.reset();
+        ((LoginResponseFragments.SplicedJson) response.getBody()).writeTo(sink);
+        return sink.size();
+    }
+
+    private static BatchDefinition batch(int batchNo, String aliases) {
+        BatchDefinition def = new BatchDefinition();
+        def.setBatchNo(batchNo);
+        def.setAliases(aliases);
+        return def;
+    }
+}